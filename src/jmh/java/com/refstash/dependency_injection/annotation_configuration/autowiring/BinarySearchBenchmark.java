@@ -0,0 +1,105 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Lookup throughput of BinarySearch.search and of the sort-once search structures.
+ * BinarySearch is wired with BubbleSort like the "bubble" qualified bean; the data is already
+ * sorted after the first call, so search() pays one linear pass plus the lookup.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BinarySearchBenchmark {
+
+	@Param({ "10", "1000", "100000", "10000000" })
+	public int size;
+
+	@Param({ "RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "SAWTOOTH" })
+	public Distribution distribution;
+
+	private static final int KEYS = 1 << 12;
+
+	private BinarySearch binarySearch;
+	private SortedIntIndex index;
+	private SortedIntIndex filteredIndex;
+	private EytzingerIndex eytzinger;
+	private IntBPlusTree tree;
+	private IntSet intSet;
+	private int[] data;
+	private int[] keys;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		binarySearch = new BinarySearch(new BubbleSort());
+		data = distribution.generate(size);
+
+		// the indexes are built with IntroSort, bubble sorting 10M unsorted values would never finish
+		BinarySearch indexer = new BinarySearch(new IntroSort());
+		index = indexer.index(data);
+		filteredIndex = indexer.index(data, 0.01);
+		eytzinger = new EytzingerIndex(index.toArray());
+		tree = IntBPlusTree.bulkLoad(data);
+		intSet = IntSet.of(data);
+		// search() only ever bubble sorts data that is already in order
+		new IntroSort().sort(data);
+
+		// keys drawn from the data, every other one nudged so that about half miss
+		SplittableRandom random = new SplittableRandom(7);
+		keys = new int[KEYS];
+		for (int i = 0; i < KEYS; i++)
+			keys[i] = data[random.nextInt(size)] + (i & 1);
+	}
+
+	private int nextKey() {
+		return keys[next++ & (KEYS - 1)];
+	}
+
+	@Benchmark
+	public int search() {
+		return binarySearch.search(data, nextKey());
+	}
+
+	@Benchmark
+	public int sortedIndex() {
+		return binarySearch.search(index, nextKey());
+	}
+
+	@Benchmark
+	public int filteredIndex() {
+		return binarySearch.search(filteredIndex, nextKey());
+	}
+
+	@Benchmark
+	public int eytzinger() {
+		return binarySearch.search(eytzinger, nextKey());
+	}
+
+	@Benchmark
+	public int bPlusTree() {
+		return binarySearch.search(tree, nextKey());
+	}
+
+	@Benchmark
+	public boolean intSet() {
+		return intSet.contains(nextKey());
+	}
+}
@@ -0,0 +1,51 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * BubbleSort is quadratic, so it is benchmarked on a smaller size range than SortAlgorithmBenchmark
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BubbleSortBenchmark {
+
+	@Param({ "10", "100", "1000", "10000" })
+	public int size;
+
+	@Param({ "RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "SAWTOOTH" })
+	public Distribution distribution;
+
+	private final SortAlgorithm sortAlgorithm = new BubbleSort();
+	private int[] source;
+	private int[] work;
+
+	@Setup
+	public void setUp() {
+		source = distribution.generate(size);
+		work = new int[size];
+	}
+
+	@Benchmark
+	public int[] sort() {
+		System.arraycopy(source, 0, work, 0, size);
+		sortAlgorithm.sort(work);
+		return work;
+	}
+}
@@ -0,0 +1,51 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Input shapes used by the sorting and searching benchmarks
+ */
+
+import java.util.SplittableRandom;
+
+public enum Distribution {
+	RANDOM {
+		@Override
+		int value(SplittableRandom random, int i, int n) {
+			return random.nextInt();
+		}
+	},
+	SORTED {
+		@Override
+		int value(SplittableRandom random, int i, int n) {
+			return i;
+		}
+	},
+	REVERSED {
+		@Override
+		int value(SplittableRandom random, int i, int n) {
+			return n - i;
+		}
+	},
+	FEW_UNIQUE {
+		@Override
+		int value(SplittableRandom random, int i, int n) {
+			return random.nextInt(16);
+		}
+	},
+	SAWTOOTH {
+		@Override
+		int value(SplittableRandom random, int i, int n) {
+			return i % 1024;
+		}
+	};
+
+	abstract int value(SplittableRandom random, int i, int n);
+
+	// same seed for every run, so results stay comparable
+	int[] generate(int n) {
+		SplittableRandom random = new SplittableRandom(42);
+		int[] arr = new int[n];
+		for (int i = 0; i < n; i++)
+			arr[i] = value(random, i, n);
+		return arr;
+	}
+}
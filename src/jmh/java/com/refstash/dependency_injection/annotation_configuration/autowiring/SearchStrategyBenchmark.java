@@ -0,0 +1,81 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Lookup throughput of every SearchStrategy on already sorted arrays.
+ * RANDOM sorts into near-uniform keys, SORTED into an exact line; FEW_UNIQUE and SAWTOOTH are
+ * the skewed cases where interpolation has to lean on its bisection fallback.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchStrategyBenchmark {
+
+	@Param({ "binary", "interpolation", "interpolation-sequential", "adaptive" })
+	public String strategy;
+
+	@Param({ "1000", "100000", "10000000", "100000000" })
+	public int size;
+
+	@Param({ "RANDOM", "SORTED", "FEW_UNIQUE", "SAWTOOTH" })
+	public Distribution distribution;
+
+	private static final int KEYS = 1 << 12;
+
+	private SearchStrategy searchStrategy;
+	private int[] sorted;
+	private int[] keys;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		searchStrategy = create(strategy);
+		sorted = distribution.generate(size);
+		new IntroSort().sort(sorted);
+
+		// keys drawn from the data, every other one nudged so that about half miss
+		SplittableRandom random = new SplittableRandom(7);
+		keys = new int[KEYS];
+		for (int i = 0; i < KEYS; i++)
+			keys[i] = sorted[random.nextInt(size)] + (i & 1);
+	}
+
+	static SearchStrategy create(String qualifier) {
+		switch (qualifier) {
+			case "binary":
+				return new BinarySearchStrategy();
+			case "interpolation":
+				return new InterpolationSearch();
+			case "interpolation-sequential":
+				return new InterpolationSequentialSearch();
+			case "adaptive":
+				return new AdaptiveSearchStrategy(new BinarySearchStrategy(), new InterpolationSearch(),
+						new InterpolationSequentialSearch());
+			default:
+				throw new IllegalArgumentException("Unknown search strategy: " + qualifier);
+		}
+	}
+
+	@Benchmark
+	public int search() {
+		return searchStrategy.search(sorted, keys[next++ & (KEYS - 1)]);
+	}
+}
@@ -0,0 +1,57 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Throughput of every SortAlgorithm implementation over sizes and input distributions.
+ * BubbleSort is quadratic and has its own, smaller, size range in BubbleSortBenchmark.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortAlgorithmBenchmark {
+
+	@Param({ "heap", "intro", "radix", "counting", "parallel", "adaptive", "bitonic" })
+	public String algorithm;
+
+	@Param({ "10", "1000", "100000", "10000000" })
+	public int size;
+
+	@Param({ "RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "SAWTOOTH" })
+	public Distribution distribution;
+
+	private SortAlgorithm sortAlgorithm;
+	private int[] source;
+	private int[] work;
+
+	@Setup
+	public void setUp() {
+		sortAlgorithm = SortAlgorithms.create(algorithm);
+		source = distribution.generate(size);
+		work = new int[size];
+	}
+
+	@Benchmark
+	public int[] sort() {
+		// refill the preallocated array so the copy does not show up in the allocation rate
+		System.arraycopy(source, 0, work, 0, size);
+		sortAlgorithm.sort(work);
+		return work;
+	}
+}
@@ -0,0 +1,35 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Creates SortAlgorithm implementations by their qualifier, wired the same way as in AppConfig
+ */
+
+final class SortAlgorithms {
+
+	private SortAlgorithms() {
+	}
+
+	static SortAlgorithm create(String qualifier) {
+		switch (qualifier) {
+			case "bubble":
+				return new BubbleSort();
+			case "heap":
+				return new HeapSort();
+			case "intro":
+				return new IntroSort();
+			case "radix":
+				return new RadixSort();
+			case "counting":
+				return new CountingSort(new IntroSort());
+			case "parallel":
+				return new ParallelMergeSort();
+			case "bitonic":
+				return new VectorBitonicSort();
+			case "adaptive":
+				return new AdaptiveSortAlgorithm(new IntroSort(), new CountingSort(new IntroSort()),
+						new ParallelMergeSort());
+			default:
+				throw new IllegalArgumentException("Unknown sort algorithm: " + qualifier);
+		}
+	}
+}
@@ -4,6 +4,7 @@ import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_eve
 import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,4 +37,15 @@ public class AmazonPrime implements Broadcaster{
             subscriber.update(episode);
         }
     }
+
+    // subscriber lists are looked up once per show, episodes of a show go out together
+    @Override
+    public void broadcastAll(Collection<? extends Episode> episodes) {
+        for (Map.Entry<String, List<Episode>> batch : Batches.groupByShow(episodes).entrySet()) {
+            List<Subscriber> subscribers = subscribersByShow.get(batch.getKey());
+            for (Subscriber subscriber: subscribers) {
+                Batches.deliver(subscriber, batch.getValue());
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.BatchSubscriber;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// helpers shared by the broadcastAll implementations
+final class Batches {
+
+    private Batches() {
+    }
+
+    // episodes grouped by show, shows in order of first appearance, episodes in their original order
+    static Map<String, List<Episode>> groupByShow(Collection<? extends Episode> episodes) {
+        Map<String, List<Episode>> byShow = new LinkedHashMap<>();
+        for (Episode episode : episodes)
+            byShow.computeIfAbsent(episode.getShowName(), show -> new ArrayList<>()).add(episode);
+        for (Map.Entry<String, List<Episode>> entry : byShow.entrySet())
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        return byShow;
+    }
+
+    // one call for a BatchSubscriber, one call per episode otherwise
+    static void deliver(Subscriber subscriber, List<Episode> episodes) {
+        if (subscriber instanceof BatchSubscriber) {
+            ((BatchSubscriber) subscriber).update(episodes);
+            return;
+        }
+        for (Episode episode : episodes)
+            subscriber.update(episode);
+    }
+}
@@ -0,0 +1,33 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Thrown by a broadcast that reached every subscriber but some of them failed.
+ * The cause is the first failure, the others are attached as suppressed exceptions;
+ * the subscribers' own exceptions are never modified.
+ */
+public class BroadcastException extends RuntimeException {
+
+    private final transient List<ParallelBroadcaster.Failure> failures;
+
+    public BroadcastException(String message, List<ParallelBroadcaster.Failure> failures) {
+        super(message, failures.isEmpty() ? null : failures.get(0).getCause());
+        this.failures = List.copyOf(failures);
+        // subscribers may share and rethrow one exception instance, attach each instance once
+        Set<Throwable> attached = Collections.newSetFromMap(new IdentityHashMap<>());
+        attached.add(getCause());
+        for (int i = 1; i < failures.size(); i++) {
+            Throwable cause = failures.get(i).getCause();
+            if (attached.add(cause))
+                addSuppressed(cause);
+        }
+    }
+
+    public List<ParallelBroadcaster.Failure> getFailures() {
+        return failures;
+    }
+}
@@ -3,6 +3,8 @@ package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_ev
 import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
 import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
 
+import java.util.Collection;
+
 public interface Broadcaster {
 
     void addSubscriber(String show, Subscriber subsciber);
@@ -10,4 +12,12 @@ public interface Broadcaster {
     void removeSubscriber(String show, Subscriber subsciber);
 
     void broadcast(Episode episode);
+
+    // broadcasts every episode, implementations may group them per show and hand
+    // a BatchSubscriber all episodes of a show in one call
+    default void broadcastAll(Collection<? extends Episode> episodes) {
+        for (Episode episode : episodes) {
+            broadcast(episode);
+        }
+    }
 }
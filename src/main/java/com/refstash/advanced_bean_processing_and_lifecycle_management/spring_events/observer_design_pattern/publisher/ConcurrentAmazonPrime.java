@@ -0,0 +1,127 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Thread-safe AmazonPrime: every show holds an immutable array of its subscribers.
+ * Subscribing and unsubscribing build a new array and swap it in with a compare-and-set,
+ * so broadcast iterates a snapshot without taking any lock, and a broadcast running during
+ * a subscription change delivers to either the old or the new list, never a corrupted one.
+ */
+public class ConcurrentAmazonPrime implements Broadcaster {
+
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    private final ConcurrentMap<String, AtomicReference<Subscriber[]>> subscribersByShow = new ConcurrentHashMap<>();
+
+    public ConcurrentAmazonPrime() {
+        //the shows of AmazonPrime, more can be registered at runtime
+        addShow("family-man");
+        addShow("panchayat");
+    }
+
+    // true if the show was not registered yet
+    public boolean addShow(String show) {
+        return subscribersByShow.putIfAbsent(show, new AtomicReference<>(NO_SUBSCRIBERS)) == null;
+    }
+
+    public Set<String> getShows() {
+        return Collections.unmodifiableSet(subscribersByShow.keySet());
+    }
+
+    // registers the show first if needed; copies the show's whole array, so adding n subscribers
+    // one by one costs O(n^2), use addSubscribers to register many at once
+    @Override
+    public void addSubscriber(String show, Subscriber subscriber) {
+        AtomicReference<Subscriber[]> slot = slot(show);
+        Subscriber[] current, updated;
+        do {
+            current = slot.get();
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscriber;
+        } while (!slot.compareAndSet(current, updated));
+    }
+
+    // appends all subscribers, in iteration order, with a single copy and a single swap;
+    // a concurrent broadcast sees either none or all of them
+    public void addSubscribers(String show, Collection<? extends Subscriber> subscribers) {
+        AtomicReference<Subscriber[]> slot = slot(show);
+        Subscriber[] added = subscribers.toArray(NO_SUBSCRIBERS);
+        if (added.length == 0)
+            return;
+        Subscriber[] current, updated;
+        do {
+            current = slot.get();
+            updated = Arrays.copyOf(current, current.length + added.length);
+            System.arraycopy(added, 0, updated, current.length, added.length);
+        } while (!slot.compareAndSet(current, updated));
+    }
+
+    private AtomicReference<Subscriber[]> slot(String show) {
+        return subscribersByShow.computeIfAbsent(show, key -> new AtomicReference<>(NO_SUBSCRIBERS));
+    }
+
+    // removes the first registration of subscriber, like List.remove
+    @Override
+    public void removeSubscriber(String show, Subscriber subscriber) {
+        remove(show, subscriber);
+    }
+
+    // true if subscriber was registered for show
+    boolean remove(String show, Subscriber subscriber) {
+        AtomicReference<Subscriber[]> slot = subscribersByShow.get(show);
+        if (slot == null)
+            return false;
+        Subscriber[] current, updated;
+        do {
+            current = slot.get();
+            int index = Arrays.asList(current).indexOf(subscriber);
+            if (index < 0)
+                return false;
+            updated = new Subscriber[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        } while (!slot.compareAndSet(current, updated));
+        return true;
+    }
+
+    // episodes of unknown shows have nobody to reach and are ignored
+    @Override
+    public void broadcast(Episode episode) {
+        for (Subscriber subscriber : snapshot(episode.getShowName())) {
+            subscriber.update(episode);
+        }
+    }
+
+    // one snapshot per show for the whole batch
+    @Override
+    public void broadcastAll(Collection<? extends Episode> episodes) {
+        for (Map.Entry<String, List<Episode>> batch : Batches.groupByShow(episodes).entrySet()) {
+            for (Subscriber subscriber : snapshot(batch.getKey())) {
+                Batches.deliver(subscriber, batch.getValue());
+            }
+        }
+    }
+
+    // the subscribers of show at this moment, unaffected by later changes
+    public List<Subscriber> getSubscribers(String show) {
+        return Collections.unmodifiableList(Arrays.asList(snapshot(show)));
+    }
+
+    // current array of show, must not be modified
+    Subscriber[] snapshot(String show) {
+        AtomicReference<Subscriber[]> slot = subscribersByShow.get(show);
+        return slot == null ? NO_SUBSCRIBERS : slot.get();
+    }
+}
@@ -0,0 +1,247 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.BatchSubscriber;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Broadcaster for shows with very many subscribers: the subscriber snapshot of a show is cut into
+ * shards of shardSize subscribers, and every shard is delivered as its own task on a ForkJoinPool.
+ * Subscribers are called from pool threads, so they must be thread-safe, and the order in which
+ * different subscribers get an episode is not defined.
+ * A subscriber that throws, even an Error, does not stop the others, the failure is recorded
+ * in the Delivery. A VirtualMachineError (out of memory, stack overflow) is not a subscriber failure:
+ * it ends its shard and is rethrown by join, once the other shards have finished.
+ * broadcastAll starts one delivery per show, a BatchSubscriber gets all episodes of the show in one call.
+ */
+public class ParallelBroadcaster implements Broadcaster {
+
+    // 4096 references span 16-32 KB, a shard's slice of the snapshot stays in L1/L2
+    public static final int DEFAULT_SHARD_SIZE = 4096;
+
+    private final ConcurrentAmazonPrime registry;
+    private final ForkJoinPool pool;
+
+    private volatile int shardSize = DEFAULT_SHARD_SIZE;
+
+    public ParallelBroadcaster() {
+        this(new ConcurrentAmazonPrime(), ForkJoinPool.commonPool());
+    }
+
+    public ParallelBroadcaster(ConcurrentAmazonPrime registry, ForkJoinPool pool) {
+        this.registry = registry;
+        this.pool = pool;
+    }
+
+    public int getShardSize() {
+        return shardSize;
+    }
+
+    public void setShardSize(int shardSize) {
+        if (shardSize < 1)
+            throw new IllegalArgumentException("shard size must be at least 1: " + shardSize);
+        this.shardSize = shardSize;
+    }
+
+    public ConcurrentAmazonPrime getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void addSubscriber(String show, Subscriber subscriber) {
+        registry.addSubscriber(show, subscriber);
+    }
+
+    @Override
+    public void removeSubscriber(String show, Subscriber subscriber) {
+        registry.removeSubscriber(show, subscriber);
+    }
+
+    // delivers to every subscriber and waits; all subscribers are called even if some fail,
+    // then a BroadcastException carrying the failures is thrown
+    @Override
+    public void broadcast(Episode episode) {
+        Delivery delivery = broadcastAsync(episode).join();
+        List<Failure> failures = delivery.getFailures();
+        if (!failures.isEmpty())
+            throw new BroadcastException(failures.size() + " of " + delivery.getSubscriberCount()
+                    + " subscribers failed to receive episode " + episode.getEpisodeNo()
+                    + " of " + episode.getShowName(), failures);
+    }
+
+    // delivers every show's episodes in parallel and waits, then throws like broadcast
+    @Override
+    public void broadcastAll(Collection<? extends Episode> episodes) {
+        List<Delivery> deliveries = broadcastAllAsync(episodes);
+        List<Failure> failures = new ArrayList<>();
+        for (Delivery delivery : deliveries)
+            failures.addAll(delivery.join().getFailures());
+        if (!failures.isEmpty())
+            throw new BroadcastException(failures.size() + " failed updates while broadcasting "
+                    + episodes.size() + " episodes of " + deliveries.size() + " shows", failures);
+    }
+
+    // starts delivery to the subscribers of the show at this moment and returns without waiting
+    public Delivery broadcastAsync(Episode episode) {
+        return start(episode.getShowName(), Collections.singletonList(episode), false);
+    }
+
+    // one delivery per show, in order of first appearance, none of them waited for
+    public List<Delivery> broadcastAllAsync(Collection<? extends Episode> episodes) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (Map.Entry<String, List<Episode>> batch : Batches.groupByShow(episodes).entrySet())
+            deliveries.add(start(batch.getKey(), batch.getValue(), true));
+        return deliveries;
+    }
+
+    private Delivery start(String show, List<Episode> episodes, boolean batched) {
+        Subscriber[] subscribers = registry.snapshot(show);
+        int size = shardSize;
+        int shards = (subscribers.length + size - 1) / size;
+        Delivery delivery = new Delivery(episodes, batched, subscribers.length, shards);
+
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[shards];
+        for (int s = 0; s < shards; s++) {
+            int shard = s, from = s * size, to = Math.min(subscribers.length, from + size);
+            tasks[s] = CompletableFuture.runAsync(() -> delivery.deliver(shard, subscribers, from, to), pool);
+        }
+        CompletableFuture.allOf(tasks).whenComplete((ignored, error) -> {
+            delivery.elapsedNanos = System.nanoTime() - delivery.startNanos;
+            if (error != null)
+                delivery.completion.completeExceptionally(error);
+            else
+                delivery.completion.complete(delivery);
+        });
+        return delivery;
+    }
+
+    // completion handle of one broadcast, or of one show's episodes in a broadcastAll
+    public static final class Delivery {
+        private final List<Episode> episodes;
+        // BatchSubscribers get the episodes in one call
+        private final boolean batched;
+        private final int subscriberCount;
+        private final long startNanos = System.nanoTime();
+        private final long[] shardLatencyNanos;
+        private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+        private final CompletableFuture<Delivery> completion = new CompletableFuture<>();
+
+        // written before completion is completed
+        private long elapsedNanos;
+
+        private Delivery(List<Episode> episodes, boolean batched, int subscriberCount, int shards) {
+            this.episodes = episodes;
+            this.batched = batched;
+            this.subscriberCount = subscriberCount;
+            this.shardLatencyNanos = new long[shards];
+        }
+
+        private void deliver(int shard, Subscriber[] subscribers, int from, int to) {
+            long started = System.nanoTime();
+            for (int i = from; i < to; i++) {
+                Subscriber subscriber = subscribers[i];
+                if (batched && subscriber instanceof BatchSubscriber) {
+                    try {
+                        ((BatchSubscriber) subscriber).update(episodes);
+                    } catch (VirtualMachineError e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        failures.add(new Failure(subscriber, e));
+                    }
+                    continue;
+                }
+                for (Episode episode : episodes) {
+                    try {
+                        subscriber.update(episode);
+                    } catch (VirtualMachineError e) {
+                        // the JVM itself is failing, carrying on would only hide it
+                        throw e;
+                    } catch (Throwable e) {
+                        // other Errors too, one subscriber must not cut the rest of the shard off
+                        failures.add(new Failure(subscriber, e));
+                    }
+                }
+            }
+            shardLatencyNanos[shard] = System.nanoTime() - started;
+        }
+
+        // the first episode of a broadcastAll delivery
+        public Episode getEpisode() {
+            return episodes.get(0);
+        }
+
+        public List<Episode> getEpisodes() {
+            return episodes;
+        }
+
+        public int getSubscriberCount() {
+            return subscriberCount;
+        }
+
+        public int getShardCount() {
+            return shardLatencyNanos.length;
+        }
+
+        public CompletableFuture<Delivery> getCompletion() {
+            return completion;
+        }
+
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        // waits until every shard is delivered; rethrows a VirtualMachineError raised by a subscriber
+        public Delivery join() {
+            try {
+                return completion.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof VirtualMachineError)
+                    throw (VirtualMachineError) e.getCause();
+                throw e;
+            }
+        }
+
+        // time each shard spent calling its subscribers, valid once done
+        public long[] getShardLatencyNanos() {
+            return shardLatencyNanos.clone();
+        }
+
+        // from broadcastAsync until the last shard finished, valid once done
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public List<Failure> getFailures() {
+            return Collections.unmodifiableList(new ArrayList<>(failures));
+        }
+    }
+
+    // a subscriber whose update threw, once per failed call
+    public static final class Failure {
+        private final Subscriber subscriber;
+        private final Throwable cause;
+
+        private Failure(Subscriber subscriber, Throwable cause) {
+            this.subscriber = subscriber;
+            this.cause = cause;
+        }
+
+        public Subscriber getSubscriber() {
+            return subscriber;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+    }
+}
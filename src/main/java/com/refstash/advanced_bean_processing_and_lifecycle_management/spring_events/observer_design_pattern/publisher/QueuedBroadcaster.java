@@ -0,0 +1,451 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.BatchSubscriber;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Broadcaster that isolates slow subscribers: every subscriber gets a bounded mailbox, broadcast only
+ * enqueues, and a drain task per mailbox calls the subscriber on the executor. A subscriber that
+ * falls behind fills its own mailbox and the OverflowPolicy decides what happens then, the other
+ * subscribers are not affected (except under BLOCK, which pushes back on the broadcasting thread).
+ * Each subscriber receives its episodes in the order they were enqueued. The episodes of one show
+ * passed to broadcastAll take a single mailbox entry, and a BatchSubscriber gets them in one call.
+ * A subscriber that throws is counted and skipped, except for a VirtualMachineError (out of memory,
+ * stack overflow): it ends the drain task and reaches the executor, and a new task drains the rest.
+ */
+public class QueuedBroadcaster implements Broadcaster, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // what broadcast does with an episode for a full mailbox
+    public enum OverflowPolicy {
+        // wait until the subscriber makes room
+        BLOCK,
+        // discard the oldest pending episode
+        DROP_OLDEST,
+        // discard the new episode
+        DROP_NEWEST,
+        // keep only the latest pending episode of every show; a new show waits for room like BLOCK
+        COALESCE_BY_SHOW
+    }
+
+    private final ConcurrentAmazonPrime registry = new ConcurrentAmazonPrime();
+    private final ConcurrentHashMap<Subscriber, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private final int defaultCapacity;
+    private final OverflowPolicy defaultPolicy;
+    private final Executor executor;
+    // null when the executor was supplied by the caller
+    private final ExecutorService ownedExecutor;
+
+    private volatile boolean closed;
+
+    public QueuedBroadcaster() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public QueuedBroadcaster(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, null);
+    }
+
+    // executor runs the drain tasks, one per subscriber with pending episodes;
+    // null means a cached pool of daemon threads, shut down by close
+    public QueuedBroadcaster(int capacity, OverflowPolicy policy, Executor executor) {
+        checkCapacity(capacity);
+        this.defaultCapacity = capacity;
+        this.defaultPolicy = policy;
+        if (executor == null) {
+            this.ownedExecutor = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "subscriber-drain");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+    }
+
+    @Override
+    public void addSubscriber(String show, Subscriber subscriber) {
+        addSubscriber(show, subscriber, defaultCapacity, defaultPolicy);
+    }
+
+    // capacity and policy apply to a subscriber's first subscription, later ones share its mailbox
+    public void addSubscriber(String show, Subscriber subscriber, int capacity, OverflowPolicy policy) {
+        checkCapacity(capacity);
+        Mailbox mailbox = mailboxes.compute(subscriber, (key, existing) -> {
+            Mailbox current = existing != null ? existing : new Mailbox(key, capacity, policy);
+            current.subscriptions++;
+            return current;
+        });
+        registry.addSubscriber(show, mailbox);
+    }
+
+    // episodes already queued for the subscriber are still delivered
+    @Override
+    public void removeSubscriber(String show, Subscriber subscriber) {
+        Mailbox mailbox = mailboxes.get(subscriber);
+        if (mailbox == null || !registry.remove(show, mailbox))
+            return;
+        mailboxes.computeIfPresent(subscriber,
+                (key, current) -> current == mailbox && --current.subscriptions == 0 ? null : current);
+    }
+
+    // enqueues the episode for every subscriber of its show and returns,
+    // only waits under BLOCK and COALESCE_BY_SHOW when a mailbox is full, until there is room or close
+    @Override
+    public void broadcast(Episode episode) {
+        if (closed)
+            throw new IllegalStateException("QueuedBroadcaster is closed");
+        registry.broadcast(episode);
+    }
+
+    // enqueues the episodes of each show as one entry per subscriber, see BatchSubscriber
+    @Override
+    public void broadcastAll(Collection<? extends Episode> episodes) {
+        if (closed)
+            throw new IllegalStateException("QueuedBroadcaster is closed");
+        registry.broadcastAll(episodes);
+    }
+
+    // null if subscriber has no subscription
+    public SubscriberStats getStats(Subscriber subscriber) {
+        Mailbox mailbox = mailboxes.get(subscriber);
+        return mailbox == null ? null : mailbox.stats();
+    }
+
+    public List<SubscriberStats> getStats() {
+        List<SubscriberStats> stats = new ArrayList<>();
+        for (Mailbox mailbox : mailboxes.values())
+            stats.add(mailbox.stats());
+        return stats;
+    }
+
+    // stops accepting episodes and wakes blocked broadcasts, which count the episode for a full
+    // mailbox as dropped and go on with the other subscribers. With the default executor, also waits
+    // until the episodes already queued have been delivered; with a caller's executor it returns
+    // at once, the queued episodes are delivered by drain tasks that executor has yet to run
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        for (Mailbox mailbox : mailboxes.values())
+            mailbox.wakeBlocked();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            ownedExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // an episode, or a batch of episodes of one show, waiting in a mailbox
+    private static final class Pending {
+        Episode episode;
+        // null for a single episode
+        final List<Episode> batch;
+        final long enqueuedNanos;
+
+        Pending(Episode episode, List<Episode> batch, long enqueuedNanos) {
+            this.episode = episode;
+            this.batch = batch;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        int episodes() {
+            return batch == null ? 1 : batch.size();
+        }
+    }
+
+    // the queue of one subscriber; registered in the registry in its place, so broadcasting enqueues
+    private final class Mailbox implements BatchSubscriber {
+        final Subscriber subscriber;
+        final int capacity;
+        final OverflowPolicy policy;
+
+        // producers are the broadcasting threads, the consumer is the single drain task
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition notFull = lock.newCondition();
+        final ArrayDeque<Pending> queue;
+        // COALESCE_BY_SHOW only, the pending episode of each show
+        final Map<String, Pending> pendingByShow;
+
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+
+        // guarded by the mailboxes entry of subscriber
+        int subscriptions;
+
+        Mailbox(Subscriber subscriber, int capacity, OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.capacity = capacity;
+            this.policy = policy;
+            this.queue = new ArrayDeque<>(Math.min(capacity, 256));
+            this.pendingByShow = policy == OverflowPolicy.COALESCE_BY_SHOW ? new HashMap<>() : null;
+        }
+
+        // called by registry.broadcast
+        @Override
+        public void update(Episode episode) {
+            if (offer(episode, null))
+                schedule();
+        }
+
+        // called by registry.broadcastAll with the episodes of one show
+        @Override
+        public void update(List<Episode> episodes) {
+            if (episodes.isEmpty())
+                return;
+            if (pendingByShow != null) {
+                // only the latest episode would survive coalescing anyway
+                dropped.addAndGet(episodes.size() - 1);
+                update(episodes.get(episodes.size() - 1));
+                return;
+            }
+            if (offer(episodes.get(0), episodes))
+                schedule();
+        }
+
+        // batch, if not null, holds episode and the rest of its show's episodes (never under COALESCE_BY_SHOW)
+        private boolean offer(Episode episode, List<Episode> batch) {
+            int size = batch == null ? 1 : batch.size();
+            lock.lock();
+            try {
+                if (pendingByShow != null) {
+                    Pending pending = pendingByShow.get(episode.getShowName());
+                    if (pending != null) {
+                        // the replaced episode is dropped, the entry keeps its place and age
+                        pending.episode = episode;
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                }
+                while (queue.size() >= capacity) {
+                    switch (policy) {
+                        case DROP_NEWEST:
+                            dropped.addAndGet(size);
+                            return false;
+                        case DROP_OLDEST:
+                            dropped.addAndGet(queue.poll().episodes());
+                            break;
+                        default:
+                            if (closed) {
+                                // woken by close: dropped like an interrupt, so the broadcast
+                                // still reaches the remaining subscribers instead of stopping partway
+                                dropped.addAndGet(size);
+                                return false;
+                            }
+                            try {
+                                notFull.await();
+                            } catch (InterruptedException e) {
+                                // the broadcasting thread gives up on this subscriber
+                                Thread.currentThread().interrupt();
+                                dropped.addAndGet(size);
+                                return false;
+                            }
+                    }
+                }
+                Pending pending = new Pending(episode, batch, System.nanoTime());
+                queue.add(pending);
+                if (pendingByShow != null)
+                    pendingByShow.put(episode.getShowName(), pending);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Pending poll() {
+            lock.lock();
+            try {
+                Pending pending = queue.poll();
+                if (pending == null)
+                    return null;
+                if (pendingByShow != null)
+                    pendingByShow.remove(pending.episode.getShowName(), pending);
+                notFull.signal();
+                return pending;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isEmpty() {
+            lock.lock();
+            try {
+                return queue.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // starts the drain task unless it is running already
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true))
+                return;
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // shut down while a broadcast was still enqueueing, deliver on this thread
+                drain();
+            }
+        }
+
+        private void drain() {
+            try {
+                Pending pending;
+                while ((pending = poll()) != null) {
+                    if (pending.batch != null && subscriber instanceof BatchSubscriber)
+                        deliver(pending.batch);
+                    else if (pending.batch != null)
+                        for (Episode episode : pending.batch)
+                            deliver(episode);
+                    else
+                        deliver(pending.episode);
+                }
+            } finally {
+                // also when a VirtualMachineError ends the drain, so the mailbox is not left scheduled forever
+                scheduled.set(false);
+                // an episode enqueued after the last poll but before scheduled was cleared
+                if (!isEmpty())
+                    schedule();
+            }
+        }
+
+        private void deliver(Episode episode) {
+            try {
+                subscriber.update(episode);
+                delivered.incrementAndGet();
+            } catch (VirtualMachineError e) {
+                // the JVM itself is failing, let the executor see it
+                throw e;
+            } catch (Throwable e) {
+                // other Errors too, the drain must go on with the next episode
+                failed.incrementAndGet();
+            }
+        }
+
+        private void deliver(List<Episode> batch) {
+            try {
+                ((BatchSubscriber) subscriber).update(batch);
+                delivered.addAndGet(batch.size());
+            } catch (VirtualMachineError e) {
+                throw e;
+            } catch (Throwable e) {
+                failed.addAndGet(batch.size());
+            }
+        }
+
+        private void wakeBlocked() {
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private SubscriberStats stats() {
+            lock.lock();
+            try {
+                Pending oldest = queue.peek();
+                long lag = oldest == null ? 0 : System.nanoTime() - oldest.enqueuedNanos;
+                return new SubscriberStats(subscriber, policy, capacity, queue.size(), dropped.get(),
+                        delivered.get(), failed.get(), lag);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // counters of one subscriber's mailbox at the time getStats was called
+    public static final class SubscriberStats {
+        private final Subscriber subscriber;
+        private final OverflowPolicy policy;
+        private final int capacity;
+        private final int depth;
+        private final long dropped;
+        private final long delivered;
+        private final long failed;
+        private final long lagNanos;
+
+        private SubscriberStats(Subscriber subscriber, OverflowPolicy policy, int capacity, int depth,
+                                long dropped, long delivered, long failed, long lagNanos) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.capacity = capacity;
+            this.depth = depth;
+            this.dropped = dropped;
+            this.delivered = delivered;
+            this.failed = failed;
+            this.lagNanos = lagNanos;
+        }
+
+        public Subscriber getSubscriber() {
+            return subscriber;
+        }
+
+        public OverflowPolicy getPolicy() {
+            return policy;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        // entries waiting in the mailbox, the episodes of one show from a broadcastAll are one entry
+        public int getDepth() {
+            return depth;
+        }
+
+        // episodes discarded or coalesced away by the overflow policy
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getDelivered() {
+            return delivered;
+        }
+
+        // episodes whose update threw, Errors other than VirtualMachineErrors included
+        public long getFailed() {
+            return failed;
+        }
+
+        // age of the oldest waiting episode, 0 when the mailbox is empty
+        public long getLagNanos() {
+            return lagNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "SubscriberStats{policy=" + policy + ", depth=" + depth + "/" + capacity
+                    + ", dropped=" + dropped + ", delivered=" + delivered + ", failed=" + failed
+                    + ", lagNanos=" + lagNanos + "}";
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Disruptor-style Broadcaster: broadcast copies the episode into a preallocated slot of a power-of-two
+ * ring and returns, dedicated consumer threads call the subscribers. Publishing allocates nothing and
+ * only waits when the ring is full.
+ *
+ * Every slot carries a sequence number; producers claim sequences and publish them, each consumer
+ * follows the published sequences and producers never overtake the slowest consumer by more than
+ * the ring size. SINGLE producer mode skips the atomic claim and may only be used from one thread.
+ *
+ * Subscribers receive the slot itself, which is reused once the ring wraps: an episode must not be
+ * kept after update returns. With several consumers every subscriber is owned by one of them, so it
+ * still sees the episodes of a show in publication order.
+ *
+ * broadcastAll publishes episode by episode: slots hold a single episode, so a BatchSubscriber
+ * receives its episodes through update(Episode), never as one list.
+ *
+ * A subscriber that throws is counted and skipped, except for a VirtualMachineError (out of memory,
+ * stack overflow): it ends its consumer thread and closes the broadcaster, and close rethrows it.
+ */
+public class RingBufferBroadcaster implements Broadcaster, AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 14;
+
+    public enum ProducerType {
+        // broadcast is called from one thread only
+        SINGLE,
+        // broadcast may be called from any thread
+        MULTI
+    }
+
+    // how threads wait for a sequence: BUSY_SPIN has the lowest latency and burns a core,
+    // YIELD leaves the core to other runnable threads, PARK sleeps and suits idle systems
+    public enum WaitStrategy {
+        BUSY_SPIN, YIELD, PARK;
+
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 200;
+        private static final long PARK_NANOS = 100_000;
+
+        // one wait step, attempt counts the unsuccessful checks so far
+        void idle(int attempt) {
+            if (this == BUSY_SPIN || attempt < SPIN_TRIES)
+                Thread.onSpinWait();
+            else if (this == YIELD || attempt < YIELD_TRIES)
+                Thread.yield();
+            else
+                LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    // a reusable episode, filled by a producer and read by the consumers
+    private static final class Slot implements Episode {
+        String showName;
+        String episodeNo;
+        // subscribers of the show when the slot was published
+        Subscriber[] subscribers;
+
+        @Override
+        public String getShowName() {
+            return showName;
+        }
+
+        @Override
+        public String getEpisodeNo() {
+            return episodeNo;
+        }
+    }
+
+    // sequences sit PADDING longs apart in one array so that no two share a cache line
+    private static final int PADDING = 16;
+    private static final int CLAIMED = PADDING;
+    private static final int PUBLISHED = 2 * PADDING;
+
+    private final ConcurrentAmazonPrime registry;
+    private final ProducerType producerType;
+    private final WaitStrategy waitStrategy;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int indexShift;
+
+    // CLAIMED: last claimed sequence, PUBLISHED: last published sequence (SINGLE only),
+    // consumer c: last sequence consumer c has finished
+    private final AtomicLongArray sequences;
+    // MULTI only: lap number of the sequence last published in each slot
+    private final AtomicIntegerArray available;
+
+    private final Thread[] consumers;
+    private final AtomicLong failedDeliveries = new AtomicLong();
+
+    private volatile boolean closed;
+    // set before closed when a subscriber threw a VirtualMachineError
+    private volatile VirtualMachineError fatalError;
+
+    // SINGLE only, slowest consumer sequence seen last time
+    private long cachedGatingSequence = -1;
+
+    public RingBufferBroadcaster() {
+        this(new ConcurrentAmazonPrime(), DEFAULT_BUFFER_SIZE, ProducerType.MULTI, WaitStrategy.YIELD, 1);
+    }
+
+    public RingBufferBroadcaster(ConcurrentAmazonPrime registry, int bufferSize, ProducerType producerType,
+                                 WaitStrategy waitStrategy, int consumerThreads) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1)
+            throw new IllegalArgumentException("buffer size must be a power of two: " + bufferSize);
+        if (consumerThreads < 1)
+            throw new IllegalArgumentException("consumer threads must be at least 1: " + consumerThreads);
+        this.registry = registry;
+        this.producerType = producerType;
+        this.waitStrategy = waitStrategy;
+
+        this.slots = new Slot[bufferSize];
+        for (int i = 0; i < bufferSize; i++)
+            slots[i] = new Slot();
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+
+        this.sequences = new AtomicLongArray((3 + consumerThreads) * PADDING);
+        sequences.set(CLAIMED, -1);
+        sequences.set(PUBLISHED, -1);
+        for (int c = 0; c < consumerThreads; c++)
+            sequences.set(consumerIndex(c), -1);
+        this.available = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++)
+            available.set(i, -1);
+
+        this.consumers = new Thread[consumerThreads];
+        for (int c = 0; c < consumerThreads; c++) {
+            int consumer = c;
+            consumers[c] = new Thread(() -> consume(consumer), "ring-broadcaster-consumer-" + c);
+            consumers[c].setDaemon(true);
+        }
+        for (Thread consumer : consumers)
+            consumer.start();
+    }
+
+    private static int consumerIndex(int consumer) {
+        return (3 + consumer) * PADDING;
+    }
+
+    public ConcurrentAmazonPrime getRegistry() {
+        return registry;
+    }
+
+    public int getBufferSize() {
+        return slots.length;
+    }
+
+    // slots free for publishing without waiting
+    public long remainingCapacity() {
+        return slots.length - (sequences.get(CLAIMED) - minimumConsumerSequence());
+    }
+
+    // subscriber updates that threw (including Errors other than VirtualMachineErrors),
+    // the exceptions themselves are dropped
+    public long getFailedDeliveries() {
+        return failedDeliveries.get();
+    }
+
+    @Override
+    public void addSubscriber(String show, Subscriber subscriber) {
+        registry.addSubscriber(show, subscriber);
+    }
+
+    @Override
+    public void removeSubscriber(String show, Subscriber subscriber) {
+        registry.removeSubscriber(show, subscriber);
+    }
+
+    // copies the episode into the ring, the episode object itself is not kept
+    @Override
+    public void broadcast(Episode episode) {
+        publish(episode.getShowName(), episode.getEpisodeNo());
+    }
+
+    // waits while the ring is full, throws IllegalStateException once closed
+    public void publish(String showName, String episodeNo) {
+        Objects.requireNonNull(showName, "showName");
+        if (closed)
+            throw closedException();
+        // everything that can fail happens before the claim: a sequence that is claimed but never
+        // published would stall every consumer
+        Subscriber[] subscribers = registry.snapshot(showName);
+        long sequence = producerType == ProducerType.SINGLE ? claimSingle() : claimMulti();
+
+        Slot slot = slots[(int) sequence & mask];
+        try {
+            slot.showName = showName;
+            slot.episodeNo = episodeNo;
+            slot.subscribers = subscribers;
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    // the release store makes the slot writes visible to a consumer that sees the sequence
+    private void publish(long sequence) {
+        if (producerType == ProducerType.SINGLE)
+            sequences.setRelease(PUBLISHED, sequence);
+        else
+            available.setRelease((int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    private long claimSingle() {
+        long sequence = sequences.getPlain(CLAIMED) + 1;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedGatingSequence)
+            cachedGatingSequence = awaitCapacity(wrapPoint);
+        sequences.setRelease(CLAIMED, sequence);
+        return sequence;
+    }
+
+    private long claimMulti() {
+        long sequence = sequences.getAndIncrement(CLAIMED) + 1;
+        awaitCapacity(sequence - slots.length);
+        return sequence;
+    }
+
+    // waits until every consumer is past wrapPoint, returns the slowest consumer sequence
+    private long awaitCapacity(long wrapPoint) {
+        long gating;
+        for (int attempt = 0; wrapPoint > (gating = minimumConsumerSequence()); attempt++) {
+            if (closed)
+                throw closedException();
+            waitStrategy.idle(attempt);
+        }
+        return gating;
+    }
+
+    private long minimumConsumerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (int c = 0; c < consumers.length; c++)
+            minimum = Math.min(minimum, sequences.getAcquire(consumerIndex(c)));
+        return minimum;
+    }
+
+    private boolean isPublished(long sequence) {
+        if (producerType == ProducerType.SINGLE)
+            return sequence <= sequences.getAcquire(PUBLISHED);
+        return available.getAcquire((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    private void consume(int consumer) {
+        int index = consumerIndex(consumer);
+        long next = sequences.getPlain(index) + 1;
+        int attempt = 0;
+        while (true) {
+            if (!isPublished(next)) {
+                // checked again after closed, a sequence published before close must not be missed
+                if (closed && !isPublished(next))
+                    return;
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+
+            // deliver the whole published batch before releasing the slots to producers
+            long last = next;
+            do {
+                deliver(slots[(int) last & mask], consumer);
+                last++;
+            } while (isPublished(last));
+            sequences.setRelease(index, last - 1);
+            next = last;
+        }
+    }
+
+    private void deliver(Slot slot, int consumer) {
+        int owners = consumers.length;
+        for (Subscriber subscriber : slot.subscribers) {
+            if (owners > 1 && Math.floorMod(System.identityHashCode(subscriber), owners) != consumer)
+                continue;
+            try {
+                subscriber.update(slot);
+            } catch (VirtualMachineError e) {
+                // the JVM itself is failing: the error ends this consumer, and closing keeps producers
+                // from waiting forever for a consumer that no longer advances
+                fatalError = e;
+                closed = true;
+                throw e;
+            } catch (Throwable e) {
+                // other Errors too: a dead consumer would stop advancing and block every producer
+                failedDeliveries.incrementAndGet();
+            }
+        }
+    }
+
+    private IllegalStateException closedException() {
+        return new IllegalStateException("RingBufferBroadcaster is closed", fatalError);
+    }
+
+    // stops accepting episodes and waits for the consumers to deliver everything already published;
+    // episodes published concurrently with close may be lost. Rethrows the VirtualMachineError that
+    // stopped a consumer, the episodes that consumer had not delivered yet are lost too
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        for (Thread consumer : consumers)
+            consumer.join();
+        VirtualMachineError error = fatalError;
+        if (error != null)
+            throw error;
+    }
+}
@@ -0,0 +1,13 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+
+import java.util.List;
+
+/*
+ * Optional extension of Subscriber: receives all episodes of one show from a broadcastAll call
+ * in a single call, in the order they were passed. The list must not be modified.
+ */
+public interface BatchSubscriber extends Subscriber {
+    void update(List<Episode> episodes);
+}
@@ -0,0 +1,93 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SearchStrategy: AdaptiveSearchStrategy
+ * Samples the array to measure how far it is from a straight line between its ends,
+ * then routes lookups to the SearchStrategy suited to that distribution.
+ * The choice is cached for the last array seen, so repeated lookups pay for sampling once.
+ * Every strategy is correct on any sorted input; a wrong choice only costs time.
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+@Component
+@Qualifier("adaptive")
+public class AdaptiveSearchStrategy implements SearchStrategy {
+
+	// arrays shorter than this are bisected, interpolation cannot win there
+	static final int MIN_INTERPOLATION_LENGTH = 1 << 10;
+
+	static final int SAMPLES = 64;
+
+	// interpolation estimates off by at most this many slots can be finished by a short scan
+	static final int MAX_SEQUENTIAL_ERROR = InterpolationSequentialSearch.SCAN_LIMIT / 2;
+
+	// interpolation estimates off by more than length / this fall back to bisection
+	static final int MAX_ERROR_DIVISOR = 64;
+
+	// Dependencies of AdaptiveSearchStrategy
+	private final SearchStrategy binary;
+	private final SearchStrategy interpolation;
+	private final SearchStrategy interpolationSequential;
+
+	// strategy chosen for the last array, swapped as a whole
+	private static final class Choice {
+		final int[] sorted;
+		final SearchStrategy strategy;
+
+		Choice(int[] sorted, SearchStrategy strategy) {
+			this.sorted = sorted;
+			this.strategy = strategy;
+		}
+	}
+
+	private volatile Choice last;
+
+	@Autowired
+	public AdaptiveSearchStrategy(@Qualifier("binary") SearchStrategy binary,
+			@Qualifier("interpolation") SearchStrategy interpolation,
+			@Qualifier("interpolation-sequential") SearchStrategy interpolationSequential) {
+		this.binary = binary;
+		this.interpolation = interpolation;
+		this.interpolationSequential = interpolationSequential;
+	}
+
+	@Override
+	public int search(int[] sorted, int x) {
+		Choice choice = last;
+		if (choice == null || choice.sorted != sorted) {
+			choice = new Choice(sorted, choose(sorted));
+			last = choice;
+		}
+		return choice.strategy.search(sorted, x);
+	}
+
+	SearchStrategy choose(int[] sorted) {
+		int n = sorted.length;
+		if (n < MIN_INTERPOLATION_LENGTH || sorted[0] == sorted[n - 1])
+			return binary;
+
+		long maxError = maxInterpolationError(sorted);
+		if (maxError <= MAX_SEQUENTIAL_ERROR)
+			return interpolationSequential;
+		if (maxError <= n / MAX_ERROR_DIVISOR)
+			return interpolation;
+		return binary;
+	}
+
+	// largest distance, over evenly spaced samples, between a slot and where interpolation puts its value
+	static long maxInterpolationError(int[] sorted) {
+		int r = sorted.length - 1;
+		int low = sorted[0], high = sorted[r];
+		long maxError = 0;
+		for (int s = 1; s < SAMPLES; s++) {
+			int i = (int) ((long) r * s / SAMPLES);
+			int estimate = InterpolationSearch.interpolate(0, r, low, high, sorted[i]);
+			maxError = Math.max(maxError, Math.abs((long) estimate - i));
+		}
+		return maxError;
+	}
+
+}
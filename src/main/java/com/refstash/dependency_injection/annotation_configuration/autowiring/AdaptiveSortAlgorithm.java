@@ -0,0 +1,198 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SortAlgorithm: AdaptiveSortAlgorithm
+ * Inspects every input and routes it to the best suited SortAlgorithm
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@Qualifier("adaptive")
+public class AdaptiveSortAlgorithm implements SortAlgorithm {
+
+	public enum Route {
+		ALREADY_SORTED,
+		REVERSED,
+		PRESORTED_RUNS,
+		SMALL_RANGE,
+		PARALLEL,
+		GENERAL
+	}
+
+	// inputs of at least this length go to the parallel sort
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 18;
+
+	// value ranges up to this width go to the small range sort
+	public static final int DEFAULT_MAX_SMALL_RANGE = 1 << 16;
+
+	// inputs made of at most this many ascending runs are merged instead of re-sorted
+	public static final int DEFAULT_MAX_RUNS = 16;
+
+	// Dependencies of AdaptiveSortAlgorithm
+	private final SortAlgorithm generalSort;
+	private final SortAlgorithm smallRangeSort;
+	private final SortAlgorithm parallelSort;
+
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+	private int maxSmallRange = DEFAULT_MAX_SMALL_RANGE;
+	private int maxRuns = DEFAULT_MAX_RUNS;
+
+	private final Map<Route, LongAdder> counters = new EnumMap<>(Route.class);
+
+	@Autowired
+	public AdaptiveSortAlgorithm(@Qualifier("intro") SortAlgorithm generalSort,
+			@Qualifier("counting") SortAlgorithm smallRangeSort,
+			@Qualifier("parallel") SortAlgorithm parallelSort) {
+		this.generalSort = generalSort;
+		this.smallRangeSort = smallRangeSort;
+		this.parallelSort = parallelSort;
+		for (Route route : Route.values())
+			counters.put(route, new LongAdder());
+	}
+
+	public void setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	public void setMaxSmallRange(int maxSmallRange) {
+		this.maxSmallRange = maxSmallRange;
+	}
+
+	public void setMaxRuns(int maxRuns) {
+		this.maxRuns = maxRuns;
+	}
+
+	@Override
+	public void sort(int[] arr) {
+		Route route = route(arr);
+		counters.get(route).increment();
+
+		switch (route) {
+			case ALREADY_SORTED:
+				break;
+			case REVERSED:
+				reverse(arr);
+				break;
+			case SMALL_RANGE:
+				smallRangeSort.sort(arr);
+				break;
+			case PRESORTED_RUNS:
+				mergeRuns(arr);
+				break;
+			case PARALLEL:
+				parallelSort.sort(arr);
+				break;
+			default:
+				generalSort.sort(arr);
+		}
+	}
+
+	// single scan collecting length, ascending/descending steps and value range
+	Route route(int[] arr) {
+		int n = arr.length;
+		if (n < 2)
+			return Route.ALREADY_SORTED;
+
+		int min = arr[0], max = arr[0];
+		int descents = 0, ascents = 0;
+		for (int i = 1; i < n; i++) {
+			int value = arr[i], previous = arr[i - 1];
+			if (value < previous)
+				descents++;
+			else if (value > previous)
+				ascents++;
+			if (value < min)
+				min = value;
+			else if (value > max)
+				max = value;
+		}
+
+		if (descents == 0)
+			return Route.ALREADY_SORTED;
+		if (ascents == 0)
+			return Route.REVERSED;
+		// range computed in long so that MIN_VALUE..MAX_VALUE does not overflow
+		if ((long) max - min < maxSmallRange)
+			return Route.SMALL_RANGE;
+		// every descent starts a new ascending run
+		if (descents < maxRuns)
+			return Route.PRESORTED_RUNS;
+		if (n >= parallelThreshold)
+			return Route.PARALLEL;
+		return Route.GENERAL;
+	}
+
+	// natural merge sort: finds the ascending runs and merges neighbouring runs pairwise,
+	// alternating between arr and one buffer, until a single run is left
+	static void mergeRuns(int[] arr) {
+		int n = arr.length;
+		int runs = 1;
+		for (int i = 1; i < n; i++)
+			if (arr[i] < arr[i - 1])
+				runs++;
+
+		// bounds[r] is the start of run r, bounds[runs] == n
+		int[] bounds = new int[runs + 1];
+		for (int i = 1, r = 1; i < n; i++)
+			if (arr[i] < arr[i - 1])
+				bounds[r++] = i;
+		bounds[runs] = n;
+
+		int[] src = arr, dst = new int[n];
+		while (runs > 1) {
+			int merged = 0;
+			for (int r = 0; r < runs; r += 2) {
+				int from = bounds[r];
+				if (r + 1 == runs) {
+					// odd run out, carried over to the next pass
+					System.arraycopy(src, from, dst, from, n - from);
+				} else {
+					ParallelMergeSort.mergeInto(src, from, bounds[r + 1], bounds[r + 1], bounds[r + 2], dst, from);
+				}
+				bounds[merged++] = from;
+			}
+			bounds[merged] = n;
+			runs = merged;
+
+			int[] swap = src;
+			src = dst;
+			dst = swap;
+		}
+
+		// odd number of passes leaves the result in the buffer
+		if (src != arr)
+			System.arraycopy(src, 0, arr, 0, n);
+	}
+
+	private static void reverse(int[] arr) {
+		for (int i = 0, j = arr.length - 1; i < j; i++, j--) {
+			int temp = arr[i];
+			arr[i] = arr[j];
+			arr[j] = temp;
+		}
+	}
+
+	public long getCount(Route route) {
+		return counters.get(route).sum();
+	}
+
+	public Map<Route, Long> getCounts() {
+		Map<Route, Long> counts = new EnumMap<>(Route.class);
+		for (Map.Entry<Route, LongAdder> entry : counters.entrySet())
+			counts.put(entry.getKey(), entry.getValue().sum());
+		return counts;
+	}
+
+	public void resetCounts() {
+		for (LongAdder counter : counters.values())
+			counter.reset();
+	}
+
+}
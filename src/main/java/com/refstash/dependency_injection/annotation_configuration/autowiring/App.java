@@ -8,6 +8,7 @@ class App {
 		ApplicationContext applicationContext = new AnnotationConfigApplicationContext(AppConfig.class);
 
 		BinarySearch binarySearch = applicationContext.getBean("binarySearch", BinarySearch.class);
+		System.out.println(binarySearch.getSortAlgorithm());
 
 		int[] arr = { 2, 3, 4, 10, 40 };
 		int result = binarySearch.search(arr, 40);
@@ -1,60 +1,165 @@
-package com.refstash.dependency_injection.annotation_configuration.autowiring;
-
-/*
- * BinarySearch Implementation
- * depends on a SortAlgorithm
- */
-
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.stereotype.Component;
-
-@Component
-public class BinarySearch {
-	// Dependency of BinarySearch
-	// Dependency injected by Spring
-	@Autowired
-	@Qualifier("bubble")
-	private SortAlgorithm sortAlgorithm;
-
-	public BinarySearch() {}
-
-	public BinarySearch(SortAlgorithm sortAlgorithm) {
-		this.sortAlgorithm = sortAlgorithm;
-	}
-
-	public void setSortAlgorithm(SortAlgorithm sortAlgorithm) {
-		this.sortAlgorithm = sortAlgorithm;
-	}
-
-	public SortAlgorithm getSortAlgorithm() {
-		return sortAlgorithm;
-	}
-
-	int search(int arr[], int x) {
-		System.out.println(this.sortAlgorithm);
-		// sorting the array
-		sortAlgorithm.sort(arr);
-
-		int l = 0, r = arr.length - 1;
-		while (l <= r) {
-			int m = l + (r - l) / 2;
-
-			// Check if x is present at mid
-			if (arr[m] == x)
-				return m;
-
-			// If x greater, ignore left half
-			if (arr[m] < x)
-				l = m + 1;
-
-			// If x is smaller, ignore right half
-			else
-				r = m - 1;
-		}
-
-		// if we reach here, then element was
-		// not present
-		return -1;
-	}
-}
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * BinarySearch Implementation
+ * depends on a SortAlgorithm and a SearchStrategy
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+@Component
+public class BinarySearch {
+	// Dependency of BinarySearch
+	// Dependency injected by Spring
+	@Autowired
+	@Qualifier("bubble")
+	private SortAlgorithm sortAlgorithm;
+
+	// Dependency injected by Spring, plain bisection when created without Spring
+	@Autowired
+	@Qualifier("binary")
+	private SearchStrategy searchStrategy = new BinarySearchStrategy();
+
+	// optional sorted container answering search(x) without sorting anything
+	private SortedIntStore backingStore;
+
+	public BinarySearch() {}
+
+	public BinarySearch(SortAlgorithm sortAlgorithm) {
+		this.sortAlgorithm = sortAlgorithm;
+	}
+
+	public void setSortAlgorithm(SortAlgorithm sortAlgorithm) {
+		this.sortAlgorithm = sortAlgorithm;
+	}
+
+	public SortAlgorithm getSortAlgorithm() {
+		return sortAlgorithm;
+	}
+
+	public void setSearchStrategy(SearchStrategy searchStrategy) {
+		this.searchStrategy = searchStrategy;
+	}
+
+	public SearchStrategy getSearchStrategy() {
+		return searchStrategy;
+	}
+
+	public void setBackingStore(SortedIntStore backingStore) {
+		this.backingStore = backingStore;
+	}
+
+	public SortedIntStore getBackingStore() {
+		return backingStore;
+	}
+
+	// looks x up in the backing store, which may be updated between calls (e.g. an IntBPlusTree)
+	int search(int x) {
+		if (backingStore == null)
+			throw new IllegalStateException("No backing store set");
+		return backingStore.indexOf(x);
+	}
+
+	int search(int arr[], int x) {
+		// sorting the array
+		sortAlgorithm.sort(arr);
+
+		return searchStrategy.search(arr, x);
+	}
+
+	// sorts a copy of arr once, so it can be searched many times
+	SortedIntIndex index(int arr[]) {
+		return new SortedIntIndex(arr, sortAlgorithm);
+	}
+
+	// same, with a Bloom filter that rejects most misses in one cache line
+	SortedIntIndex index(int arr[], double falsePositiveRate) {
+		return new SortedIntIndex(arr, sortAlgorithm, falsePositiveRate);
+	}
+
+	// O(log n) lookup, no sorting and no mutation of the stored values
+	int search(SortedIntStore store, int x) {
+		return store.indexOf(x);
+	}
+
+	// fails with IllegalStateException if the index was rebuilt after expectedVersion
+	int search(SortedIntIndex index, long expectedVersion, int x) {
+		return index.indexOf(x, expectedVersion);
+	}
+
+	// cache friendly layout for repeated lookups on large arrays
+	EytzingerIndex eytzinger(int arr[]) {
+		int[] sorted = arr.clone();
+		sortAlgorithm.sort(sorted);
+		return new EytzingerIndex(sorted);
+	}
+
+	// sorts data once and answers every key in one merge-style pass,
+	// result[i] is the position of the first occurrence of keys[i] or -1
+	int[] searchAll(int data[], int keys[]) {
+		sortAlgorithm.sort(data);
+		return searchAllSorted(data, keys);
+	}
+
+	int[] searchAll(SortedIntIndex index, int keys[]) {
+		return searchAllSorted(index.sorted(), keys);
+	}
+
+	static int[] searchAllSorted(int sorted[], int keys[]) {
+		int k = keys.length;
+		int[] result = new int[k];
+
+		// key in the high half, original position in the low half,
+		// so sorting the longs sorts the keys and keeps track of where they came from
+		long[] order = new long[k];
+		for (int i = 0; i < k; i++)
+			order[i] = ((long) keys[i] << 32) | i;
+		Arrays.sort(order);
+
+		int n = sorted.length;
+		int pos = 0;
+		for (int i = 0; i < k; i++) {
+			int key = (int) (order[i] >> 32);
+			int slot = (int) order[i];
+
+			// keys only move forward, so the search resumes where the last one stopped
+			pos = gallop(sorted, pos, n, key);
+			result[slot] = pos < n && sorted[pos] == key ? pos : -1;
+		}
+
+		return result;
+	}
+
+	// first index in [from, to) holding a value >= key,
+	// probing 1, 2, 4, ... ahead before narrowing down with a binary search
+	static int gallop(int sorted[], int from, int to, int key) {
+		if (from >= to || sorted[from] >= key)
+			return from;
+
+		int last = from, step = 1;
+		int probe = from + step;
+		while (probe < to && sorted[probe] < key) {
+			last = probe;
+			step <<= 1;
+			probe = from + step;
+			// step overflowed, nothing beyond this point
+			if (probe < 0)
+				probe = to;
+		}
+
+		// sorted[last] < key <= sorted[min(probe, to)]
+		int l = last + 1, r = Math.min(probe, to);
+		while (l < r) {
+			int m = (l + r) >>> 1;
+			if (sorted[m] < key)
+				l = m + 1;
+			else
+				r = m;
+		}
+		return l;
+	}
+}
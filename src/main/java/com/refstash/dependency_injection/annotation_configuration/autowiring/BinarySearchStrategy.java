@@ -0,0 +1,43 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SearchStrategy: BinarySearchStrategy
+ * Classic bisection, log2(n) probes whatever the distribution
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+@Component
+@Qualifier("binary")
+public class BinarySearchStrategy implements SearchStrategy {
+
+	@Override
+	public int search(int[] sorted, int x) {
+		return search(sorted, 0, sorted.length - 1, x);
+	}
+
+	// bisection of sorted[l..r], also the fallback of the interpolation strategies
+	static int search(int[] sorted, int l, int r, int x) {
+		while (l <= r) {
+			int m = l + (r - l) / 2;
+
+			// Check if x is present at mid
+			if (sorted[m] == x)
+				return m;
+
+			// If x greater, ignore left half
+			if (sorted[m] < x)
+				l = m + 1;
+
+			// If x is smaller, ignore right half
+			else
+				r = m - 1;
+		}
+
+		// if we reach here, then element was
+		// not present
+		return -1;
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Bloom filter over ints, split into 512-bit blocks (one cache line each).
+ * All bits of a key live in the same block, so a lookup touches a single cache line;
+ * misses are rejected without sorting or searching anything.
+ * No false negatives: mightContain(x) is true for every added x.
+ */
+
+public class BlockedBloomFilter {
+
+	// 8 longs = 512 bits = one 64-byte cache line
+	private static final int BLOCK_LONGS = 8;
+	private static final int BLOCK_BITS = BLOCK_LONGS * 64;
+
+	private static final int MAX_HASHES = 16;
+
+	// each bit position is the top 9 bits of the hash times successive powers of this odd constant
+	private static final long BIT_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private final long[] bits;
+	private final int blocks;
+	private final int hashes;
+	private final int expectedKeys;
+	private final double falsePositiveRate;
+
+	public BlockedBloomFilter(int expectedKeys, double falsePositiveRate) {
+		if (expectedKeys < 0)
+			throw new IllegalArgumentException("expected keys must not be negative: " + expectedKeys);
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+			throw new IllegalArgumentException("false positive rate must be in (0, 1): " + falsePositiveRate);
+		this.expectedKeys = expectedKeys;
+		this.falsePositiveRate = falsePositiveRate;
+
+		// start from the classic optimum of -ln(p) / ln(2)^2 bits per key; keeping all bits of a key
+		// in one block makes crowded blocks worse, so grow the budget until the blocked rate fits
+		double bitsPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+		while (blockedFalsePositiveRate(bitsPerKey, hashCount(bitsPerKey)) > falsePositiveRate)
+			bitsPerKey *= 1.02;
+		long totalBits = (long) Math.ceil(Math.max(1, expectedKeys) * bitsPerKey);
+		long blockCount = (totalBits + BLOCK_BITS - 1) / BLOCK_BITS;
+		if (blockCount * BLOCK_LONGS > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Bloom filter too large for " + expectedKeys + " keys");
+		this.blocks = (int) Math.max(1, blockCount);
+		this.bits = new long[blocks * BLOCK_LONGS];
+		this.hashes = hashCount(bitsPerKey);
+	}
+
+	private static int hashCount(double bitsPerKey) {
+		return (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerKey * Math.log(2))));
+	}
+
+	// expected rate when the number of keys per block is Poisson distributed:
+	// the sum over j of P(j keys in the block) * (fraction of the block's bits set by j keys)^hashes
+	static double blockedFalsePositiveRate(double bitsPerKey, int hashes) {
+		double keysPerBlock = BLOCK_BITS / bitsPerKey;
+		double logKeysPerBlock = Math.log(keysPerBlock);
+		int last = (int) (keysPerBlock + 12 * Math.sqrt(keysPerBlock) + 20);
+		double rate = 0, logFactorial = 0;
+		for (int j = 0; j <= last; j++) {
+			if (j > 0)
+				logFactorial += Math.log(j);
+			double probability = Math.exp(-keysPerBlock + j * logKeysPerBlock - logFactorial);
+			double setFraction = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) hashes * j);
+			rate += probability * Math.pow(setFraction, hashes);
+		}
+		return rate;
+	}
+
+	public static BlockedBloomFilter of(int[] keys, double falsePositiveRate) {
+		BlockedBloomFilter filter = new BlockedBloomFilter(keys.length, falsePositiveRate);
+		for (int key : keys)
+			filter.add(key);
+		return filter;
+	}
+
+	public void add(int x) {
+		long hash = mix(x);
+		int offset = block(hash);
+		long state = hash;
+		for (int i = 0; i < hashes; i++) {
+			state *= BIT_MULTIPLIER;
+			int bit = (int) (state >>> 55);
+			bits[offset + (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	// false means x was never added, true means it probably was
+	public boolean mightContain(int x) {
+		long hash = mix(x);
+		int offset = block(hash);
+		long state = hash;
+		for (int i = 0; i < hashes; i++) {
+			state *= BIT_MULTIPLIER;
+			int bit = (int) (state >>> 55);
+			if ((bits[offset + (bit >>> 6)] & (1L << bit)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	// configured false positive rate
+	public double getFalsePositiveRate() {
+		return falsePositiveRate;
+	}
+
+	public int getHashCount() {
+		return hashes;
+	}
+
+	public long bitSize() {
+		return (long) bits.length * 64;
+	}
+
+	// memory spent per expected key
+	public double bitsPerKey() {
+		return (double) bitSize() / Math.max(1, expectedKeys);
+	}
+
+	// first long of the block picked by the high half of the hash, multiply-shift instead of modulo
+	private int block(long hash) {
+		return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+	}
+
+	// murmur3 64-bit finalizer
+	private static long mix(int x) {
+		long h = x;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
@@ -0,0 +1,159 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SortAlgorithm: CountingSort
+ * O(n + range) for small value ranges: one pass finds min and max, a second builds a histogram
+ * and the output is rewritten from the counts. Inputs whose range exceeds the budget go to the
+ * fallback comparison sort. Large inputs build per-chunk histograms in parallel.
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+@Component
+@Qualifier("counting")
+public class CountingSort implements SortAlgorithm {
+
+	// widest value range sorted with a histogram, 2^20 counters = 4 MB
+	public static final int DEFAULT_MAX_RANGE = 1 << 20;
+
+	// inputs of at least this length count and write in parallel
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+
+	// the histogram must not dwarf the input: range <= RANGE_PER_ELEMENT * n
+	static final int RANGE_PER_ELEMENT = 4;
+
+	// Dependency of CountingSort, sorts everything the histogram cannot
+	private final SortAlgorithm fallbackSort;
+
+	private int maxRange = DEFAULT_MAX_RANGE;
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	@Autowired
+	public CountingSort(@Qualifier("intro") SortAlgorithm fallbackSort) {
+		this.fallbackSort = fallbackSort;
+	}
+
+	public int getMaxRange() {
+		return maxRange;
+	}
+
+	// histogram budget, in counters
+	public void setMaxRange(int maxRange) {
+		if (maxRange < 1)
+			throw new IllegalArgumentException("max range must be at least 1: " + maxRange);
+		this.maxRange = maxRange;
+	}
+
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	public void setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void sort(int[] arr) {
+		int n = arr.length;
+		if (n < 2)
+			return;
+
+		int min = arr[0], max = arr[0];
+		for (int i = 1; i < n; i++) {
+			int value = arr[i];
+			if (value < min)
+				min = value;
+			else if (value > max)
+				max = value;
+		}
+
+		// range computed in long so that MIN_VALUE..MAX_VALUE does not overflow
+		long range = (long) max - min + 1;
+		if (range > maxRange || range > (long) RANGE_PER_ELEMENT * n) {
+			fallbackSort.sort(arr);
+			return;
+		}
+
+		int chunks = n >= parallelThreshold ? Math.max(1, Math.min(pool.getParallelism(),
+				(int) ((long) maxRange / range))) : 1;
+		if (chunks == 1)
+			sortSequential(arr, min, (int) range);
+		else
+			sortParallel(arr, min, (int) range, chunks);
+	}
+
+	private static void sortSequential(int[] arr, int min, int range) {
+		int[] counts = new int[range];
+		for (int value : arr)
+			counts[value - min]++;
+
+		int i = 0;
+		for (int v = 0; v < range; v++)
+			for (int c = counts[v]; c > 0; c--)
+				arr[i++] = min + v;
+	}
+
+	// every chunk counts its own slice, chunks is bounded so that all histograms fit the budget
+	private void sortParallel(int[] arr, int min, int range, int chunks) {
+		int n = arr.length;
+		List<ForkJoinTask<int[]>> counting = new ArrayList<>(chunks);
+		for (int c = 0; c < chunks; c++) {
+			int from = (int) ((long) n * c / chunks), to = (int) ((long) n * (c + 1) / chunks);
+			counting.add(pool.submit(() -> {
+				int[] local = new int[range];
+				for (int i = from; i < to; i++)
+					local[arr[i] - min]++;
+				return local;
+			}));
+		}
+
+		int[] counts = counting.get(0).join();
+		for (int c = 1; c < chunks; c++) {
+			int[] local = counting.get(c).join();
+			for (int v = 0; v < range; v++)
+				counts[v] += local[v];
+		}
+
+		// split the values so every writer fills about n / chunks slots,
+		// starts[v] is the first output slot of value min + v
+		int[] starts = new int[range];
+		int[] split = new int[chunks + 1];
+		int position = 0, next = 1;
+		for (int v = 0; v < range; v++) {
+			starts[v] = position;
+			position += counts[v];
+			while (next < chunks && position >= (long) n * next / chunks)
+				split[next++] = v + 1;
+		}
+		while (next <= chunks)
+			split[next++] = range;
+
+		List<ForkJoinTask<?>> writing = new ArrayList<>(chunks);
+		for (int c = 0; c < chunks; c++) {
+			int fromValue = split[c], toValue = split[c + 1];
+			writing.add(pool.submit(() -> {
+				for (int v = fromValue; v < toValue; v++) {
+					int start = starts[v];
+					for (int i = start, end = start + counts[v]; i < end; i++)
+						arr[i] = min + v;
+				}
+			}));
+		}
+		for (ForkJoinTask<?> task : writing)
+			task.join();
+	}
+
+}
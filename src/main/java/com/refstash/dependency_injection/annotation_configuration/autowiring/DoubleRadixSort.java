@@ -0,0 +1,73 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of DoubleSortAlgorithm: DoubleRadixSort
+ * Maps every double to a long whose unsigned order is the numeric order,
+ * then sorts those keys with the LongRadixSort passes
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+@Component
+@Qualifier("radix")
+public class DoubleRadixSort implements DoubleSortAlgorithm {
+
+	// scratch keys reused by every sort on the same thread
+	private static final ThreadLocal<long[][]> SCRATCH = ThreadLocal.withInitial(() -> new long[][] { new long[0] });
+
+	@Override
+	public void sort(double[] arr) {
+		// move NaNs to the end untouched, like Arrays.sort does, and sort the rest
+		int n = arr.length;
+		for (int i = n - 1; i >= 0; i--) {
+			double value = arr[i];
+			if (value != value) {
+				arr[i] = arr[--n];
+				arr[n] = value;
+			}
+		}
+		if (n < 2)
+			return;
+
+		// like RadixSort, buffers above MAX_CACHED_BUFFER are not kept
+		long[][] holder = SCRATCH.get();
+		long[] keys;
+		if (n > RadixSort.MAX_CACHED_BUFFER)
+			keys = new long[n];
+		else {
+			if (holder[0].length < n)
+				holder[0] = new long[n];
+			keys = holder[0];
+		}
+
+		for (int i = 0; i < n; i++)
+			keys[i] = key(Double.doubleToRawLongBits(arr[i]));
+		LongRadixSort.sortUnsigned(keys, null, n);
+		for (int i = 0; i < n; i++)
+			arr[i] = Double.longBitsToDouble(value(keys[i]));
+	}
+
+	@Override
+	public int[] argsort(double[] arr) {
+		int n = arr.length;
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			double value = arr[i];
+			// every NaN after +Infinity, whatever its sign bit
+			keys[i] = value != value ? -1L : key(Double.doubleToRawLongBits(value));
+		}
+		return LongRadixSort.argsortUnsigned(keys);
+	}
+
+	// negative values: flip every bit, so larger magnitudes come first;
+	// positive values: flip the sign bit only, so they come after every negative
+	static long key(long bits) {
+		return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+	}
+
+	static long value(long key) {
+		return key ^ ((~key >> 63) | Long.MIN_VALUE);
+	}
+
+}
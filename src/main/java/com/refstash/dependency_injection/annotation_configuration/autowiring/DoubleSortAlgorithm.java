@@ -0,0 +1,12 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Orders doubles like Arrays.sort(double[]): -0.0 before 0.0 and NaN after every other value
+ */
+
+public interface DoubleSortAlgorithm {
+    void sort(double[] arr);
+
+    // permutation p such that arr[p[0]] <= arr[p[1]] <= ..., equal values keep their order; arr is not modified
+    int[] argsort(double[] arr);
+}
@@ -0,0 +1,351 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SortAlgorithm: ExternalSortAlgorithm
+ * Sorts int data that does not fit in the heap.
+ * Input and output are raw 4-byte big-endian ints (the layout written by DataOutputStream.writeInt).
+ * Sorted runs sized by the memory budget are spilled to temporary files in parallel,
+ * then k-way merged with a primitive heap.
+ */
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Qualifier("external")
+public class ExternalSortAlgorithm implements SortAlgorithm {
+
+	public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+	// smallest read/write buffer used per run while merging
+	static final int MIN_MERGE_BUFFER = 64 << 10;
+
+	// largest read/write buffer used during run generation
+	private static final int IO_BUFFER = 1 << 20;
+
+	// Dependency of ExternalSortAlgorithm, sorts each run in memory
+	private final SortAlgorithm runSort;
+
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private Path tempDirectory;
+
+	// sets of merge buffers allocated so far, one per sort that had anything to merge
+	private final AtomicLong mergeBufferAllocations = new AtomicLong();
+
+	@Autowired
+	public ExternalSortAlgorithm(@Qualifier("intro") SortAlgorithm runSort) {
+		this.runSort = runSort;
+	}
+
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	// bytes used for run buffers during run generation and for I/O buffers while merging
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 4L * MIN_MERGE_BUFFER)
+			throw new IllegalArgumentException("memory budget too small: " + memoryBudget);
+		this.memoryBudget = memoryBudget;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	// number of runs sorted and spilled concurrently
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+		this.parallelism = parallelism;
+	}
+
+	// directory for spilled runs, null for the system default
+	public void setTempDirectory(Path tempDirectory) {
+		this.tempDirectory = tempDirectory;
+	}
+
+	// the array already fits in memory, so it is sorted as a single run
+	@Override
+	public void sort(int[] arr) {
+		runSort.sort(arr);
+	}
+
+	// output must not be the input file, it is truncated before the input is read
+	public void sort(Path input, Path output) throws IOException {
+		if (Files.exists(output) && Files.isSameFile(input, output))
+			throw new IllegalArgumentException("Input and output are the same file: " + output);
+		try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			sort(in, out);
+		}
+	}
+
+	public void sort(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+		List<Path> runs = new ArrayList<>();
+		// every run created by an intermediate merge pass, deleted whatever happens
+		List<Path> intermediate = new ArrayList<>();
+		try {
+			generateRuns(in, runs);
+			// empty input, nothing to merge or write
+			if (runs.isEmpty())
+				return;
+
+			// merge in several passes if one pass would need more buffers than the budget allows
+			int maxFanIn = (int) Math.max(2, memoryBudget / MIN_MERGE_BUFFER - 1);
+			// one set of direct buffers, sized for the widest merge, serves every pass
+			MergeBuffers buffers = new MergeBuffers(Math.min(runs.size(), maxFanIn), memoryBudget);
+			mergeBufferAllocations.incrementAndGet();
+			while (runs.size() > maxFanIn) {
+				List<Path> merged = new ArrayList<>();
+				for (int from = 0; from < runs.size(); from += maxFanIn) {
+					List<Path> group = runs.subList(from, Math.min(from + maxFanIn, runs.size()));
+					Path run = createRun();
+					intermediate.add(run);
+					merged.add(run);
+					try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+						merge(group, channel, buffers);
+					}
+					for (Path done : group)
+						Files.deleteIfExists(done);
+				}
+				runs = merged;
+			}
+
+			merge(runs, out, buffers);
+		} finally {
+			for (Path run : runs)
+				Files.deleteIfExists(run);
+			for (Path run : intermediate)
+				Files.deleteIfExists(run);
+		}
+	}
+
+	// reads the input into budget sized chunks, each sorted and spilled on a worker thread
+	private void generateRuns(ReadableByteChannel in, List<Path> runs) throws IOException {
+		// the read buffer and one write buffer per worker take at most a quarter of the budget,
+		// the chunks get the rest
+		int ioBuffer = (int) Math.max(4, Math.min(IO_BUFFER, memoryBudget / 4 / (parallelism + 1)) & ~3L);
+		long chunkBudget = memoryBudget - (long) ioBuffer * (parallelism + 1);
+		int chunkLength = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, chunkBudget / 4 / parallelism));
+
+		// the free chunks bound how many runs are in memory at once
+		BlockingQueue<int[]> free = new ArrayBlockingQueue<>(parallelism);
+		for (int i = 0; i < parallelism; i++)
+			free.add(new int[0]);
+		// at most parallelism runs are written at once, so taking a write buffer never waits
+		BlockingQueue<ByteBuffer> writeBuffers = new ArrayBlockingQueue<>(parallelism);
+		for (int i = 0; i < parallelism; i++)
+			writeBuffers.add(ByteBuffer.allocateDirect(ioBuffer));
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		List<Future<?>> pending = new ArrayList<>();
+		ByteBuffer readBuffer = ByteBuffer.allocateDirect(ioBuffer);
+		try {
+			boolean eof = false;
+			while (!eof) {
+				int[] chunk = free.take();
+				if (chunk.length < chunkLength)
+					chunk = new int[chunkLength];
+
+				// readBuffer stays in write mode, position() is the number of buffered bytes
+				int length = 0;
+				while (length < chunkLength) {
+					if (readBuffer.position() < 4) {
+						if (in.read(readBuffer) < 0) {
+							eof = true;
+							break;
+						}
+						continue;
+					}
+					readBuffer.flip();
+					int available = Math.min(readBuffer.remaining() / 4, chunkLength - length);
+					for (int i = 0; i < available; i++)
+						chunk[length++] = readBuffer.getInt();
+					readBuffer.compact();
+				}
+				if (eof && readBuffer.position() != 0)
+					throw new IOException("Input length is not a multiple of 4 bytes");
+
+				if (length == 0) {
+					free.add(chunk);
+					break;
+				}
+
+				Path run = createRun();
+				runs.add(run);
+				int[] full = chunk;
+				int used = length;
+				pending.add(executor.submit(() -> {
+					ByteBuffer writeBuffer = writeBuffers.take();
+					try {
+						writeRun(full, used, run, writeBuffer);
+					} finally {
+						writeBuffers.add(writeBuffer);
+						free.add(full);
+					}
+					return null;
+				}));
+			}
+
+			for (Future<?> future : pending)
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while generating runs");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException("Run generation failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void writeRun(int[] chunk, int length, Path run, ByteBuffer writeBuffer) throws IOException {
+		// the last chunk may be partial, sorted in place as a range
+		runSort.sort(chunk, 0, length);
+
+		writeBuffer.clear();
+		try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+			for (int i = 0; i < length; i++) {
+				if (writeBuffer.remaining() < 4)
+					drain(writeBuffer, channel);
+				writeBuffer.putInt(chunk[i]);
+			}
+			drain(writeBuffer, channel);
+		}
+	}
+
+	long getMergeBufferAllocations() {
+		return mergeBufferAllocations.get();
+	}
+
+	// k-way merge through a binary min-heap of run numbers keyed by each run's current value
+	private static void merge(List<Path> runs, WritableByteChannel out, MergeBuffers mergeBuffers) throws IOException {
+		int k = runs.size();
+		if (k == 0)
+			return;
+
+		FileChannel[] channels = new FileChannel[k];
+		ByteBuffer[] buffers = mergeBuffers.reads;
+		int[] head = new int[k];
+		int[] heap = new int[k];
+		int size = 0;
+		try {
+			for (int run = 0; run < k; run++) {
+				channels[run] = FileChannel.open(runs.get(run), StandardOpenOption.READ);
+				// empty and in read mode, whatever the previous merge left in it
+				buffers[run].clear().flip();
+				if (next(channels[run], buffers[run])) {
+					head[run] = buffers[run].getInt();
+					heap[size++] = run;
+				}
+			}
+			for (int i = size / 2 - 1; i >= 0; i--)
+				siftDown(heap, head, i, size);
+
+			ByteBuffer output = mergeBuffers.output;
+			output.clear();
+			while (size > 0) {
+				int run = heap[0];
+				if (output.remaining() < 4)
+					drain(output, out);
+				output.putInt(head[run]);
+
+				if (next(channels[run], buffers[run])) {
+					head[run] = buffers[run].getInt();
+				} else {
+					// run exhausted, move the last heap entry to the root
+					heap[0] = heap[--size];
+				}
+				siftDown(heap, head, 0, size);
+			}
+			drain(output, out);
+		} finally {
+			for (FileChannel channel : channels)
+				if (channel != null)
+					channel.close();
+		}
+	}
+
+	// true if at least one more int can be read from the buffer, refilling it when needed
+	private static boolean next(FileChannel channel, ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() >= 4)
+			return true;
+		buffer.compact();
+		while (buffer.position() < 4) {
+			if (channel.read(buffer) < 0)
+				break;
+		}
+		buffer.flip();
+		return buffer.remaining() >= 4;
+	}
+
+	private static void siftDown(int[] heap, int[] head, int i, int size) {
+		int run = heap[i];
+		int value = head[run];
+		int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			int right = child + 1;
+			if (right < size && head[heap[right]] < head[heap[child]])
+				child = right;
+			if (value <= head[heap[child]])
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = run;
+	}
+
+	private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	// a read buffer per merged run plus the output buffer, together within the memory budget
+	private static final class MergeBuffers {
+		final ByteBuffer[] reads;
+		final ByteBuffer output;
+
+		MergeBuffers(int fanIn, long memoryBudget) {
+			int bufferSize = (int) Math.min(Integer.MAX_VALUE & ~3,
+					Math.max(MIN_MERGE_BUFFER, memoryBudget / (fanIn + 1) & ~3L));
+			reads = new ByteBuffer[fanIn];
+			for (int i = 0; i < fanIn; i++)
+				reads[i] = ByteBuffer.allocateDirect(bufferSize);
+			output = ByteBuffer.allocateDirect(bufferSize);
+		}
+	}
+
+	private Path createRun() throws IOException {
+		return tempDirectory == null
+				? Files.createTempFile("sort-run-", ".bin")
+				: Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Sorted values stored in Eytzinger (BFS) order: the children of slot k are 2k and 2k + 1.
+ * The first levels of the implicit tree share a handful of cache lines and every probe
+ * moves forward in memory, so lookups on large arrays miss cache far less than the
+ * classic l/r/m loop. The descent has no data dependent branch.
+ */
+
+public class EytzingerIndex implements SortedIntStore {
+
+	// 1-based layout, slot 0 is unused
+	private final int[] layout;
+
+	private final int size;
+
+	// number of levels of the implicit tree
+	private final int height;
+
+	// number of slots present on the last, possibly partial, level
+	private final int lastLevelSlots;
+
+	// sink for the look-ahead loads, keeps the JIT from dropping them
+	private int prefetched;
+	private static final int PREFETCH_MARKER = 0x5EED5EED;
+
+	// sorted must already be in ascending order
+	public EytzingerIndex(int[] sorted) {
+		// 2k + 1 must not overflow during the descent
+		if (sorted.length >= 1 << 30)
+			throw new IllegalArgumentException("Too many values for an Eytzinger layout: " + sorted.length);
+		this.size = sorted.length;
+		this.layout = new int[size + 1];
+		this.height = 32 - Integer.numberOfLeadingZeros(size);
+		this.lastLevelSlots = size == 0 ? 0 : size - (1 << (height - 1)) + 1;
+		build(sorted, 0, 1);
+	}
+
+	public static EytzingerIndex of(SortedIntIndex index) {
+		return new EytzingerIndex(index.sorted());
+	}
+
+	// in-order walk of the implicit tree hands out the sorted values left to right
+	private int build(int[] sorted, int i, int k) {
+		if (k <= size) {
+			i = build(sorted, i, 2 * k);
+			layout[k] = sorted[i++];
+			i = build(sorted, i, 2 * k + 1);
+		}
+		return i;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	// position in sorted order of the first occurrence of x, -1 if absent
+	@Override
+	public int indexOf(int x) {
+		int k = lowerBoundSlot(x);
+		return k != 0 && layout[k] == x ? rank(k) : -1;
+	}
+
+	@Override
+	public boolean contains(int x) {
+		int k = lowerBoundSlot(x);
+		return k != 0 && layout[k] == x;
+	}
+
+	// in-order position of slot k: its position in a perfect tree of the same height,
+	// minus the missing last level slots to its left
+	private int rank(int k) {
+		int depth = 31 - Integer.numberOfLeadingZeros(k);
+		int perfect = ((2 * (k - (1 << depth)) + 1) << (height - 1 - depth)) - 1;
+		// in a perfect tree the last level holds the even positions 0, 2, 4, ...
+		int missing = (perfect + 1) / 2 - lastLevelSlots;
+		return missing > 0 ? perfect - missing : perfect;
+	}
+
+	// slot of the smallest value >= x, 0 if every value is smaller
+	private int lowerBoundSlot(int x) {
+		int[] layout = this.layout;
+		int n = size;
+		int k = 1, ahead = 0;
+		while (k <= n) {
+			// Java has no prefetch instruction, so load the slot four levels down instead;
+			// its address does not depend on the comparison and the miss overlaps the descent
+			// computed in long, k << 4 overflows int once k >= 2^27
+			ahead ^= layout[(int) Math.min((long) k << 4, n)];
+			// go right when the slot is smaller than x, compiled to a conditional move
+			k = 2 * k + (layout[k] < x ? 1 : 0);
+		}
+		// practically never true, so readers do not write a shared field
+		if (ahead == PREFETCH_MARKER)
+			prefetched = ahead;
+
+		// undo the right turns taken after the last left turn
+		return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+	}
+
+}
@@ -0,0 +1,506 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Mutable sorted set of ints backed by a B+tree with primitive int leaves.
+ * Inner nodes keep the size of every subtree, so rank is O(log n) as well.
+ * Leaves are linked left to right for range iteration.
+ * Not thread-safe, concurrent writers must synchronize externally.
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class IntBPlusTree implements SortedIntStore {
+
+	// 64 ints per leaf, four cache lines
+	static final int LEAF_CAPACITY = 64;
+	static final int INNER_CAPACITY = 64;
+
+	private static final int LEAF_MIN = LEAF_CAPACITY / 2;
+	private static final int INNER_MIN = INNER_CAPACITY / 2;
+
+	// bulk loaded nodes are left partly empty so the first inserts do not split them
+	private static final int LEAF_FILL = LEAF_CAPACITY * 3 / 4;
+	private static final int INNER_FILL = INNER_CAPACITY * 3 / 4;
+
+	private abstract static class Node {
+		// keys in a leaf, children in an inner node
+		int size;
+	}
+
+	private static final class Leaf extends Node {
+		final int[] keys = new int[LEAF_CAPACITY];
+		Leaf next;
+	}
+
+	private static final class Inner extends Node {
+		// keys[i] is the smallest key of children[i + 1]
+		final int[] keys = new int[INNER_CAPACITY - 1];
+		final Node[] children = new Node[INNER_CAPACITY];
+		// number of keys under each child
+		final int[] counts = new int[INNER_CAPACITY];
+	}
+
+	private Node root = new Leaf();
+	private int size;
+
+	// results of the last recursive insert or delete
+	private boolean changed;
+	private int splitKey;
+
+	public IntBPlusTree() {
+	}
+
+	// builds the tree bottom-up from the distinct values of values, which is not modified
+	public static IntBPlusTree bulkLoad(int[] values) {
+		int[] sorted = values.clone();
+		Arrays.sort(sorted);
+		int n = 0;
+		for (int i = 0; i < sorted.length; i++)
+			if (i == 0 || sorted[i] != sorted[i - 1])
+				sorted[n++] = sorted[i];
+
+		IntBPlusTree tree = new IntBPlusTree();
+		if (n == 0)
+			return tree;
+
+		// leaves, spreading the keys evenly
+		int leafCount = (n + LEAF_FILL - 1) / LEAF_FILL;
+		Node[] level = new Node[leafCount];
+		int[] mins = new int[leafCount];
+		int[] counts = new int[leafCount];
+		Leaf previous = null;
+		for (int i = 0, from = 0; i < leafCount; i++) {
+			int to = (int) ((long) n * (i + 1) / leafCount);
+			Leaf leaf = new Leaf();
+			System.arraycopy(sorted, from, leaf.keys, 0, to - from);
+			leaf.size = to - from;
+			if (previous != null)
+				previous.next = leaf;
+			previous = leaf;
+			level[i] = leaf;
+			mins[i] = sorted[from];
+			counts[i] = leaf.size;
+			from = to;
+		}
+
+		// inner levels until a single root remains
+		while (level.length > 1) {
+			int parentCount = (level.length + INNER_FILL - 1) / INNER_FILL;
+			Node[] parents = new Node[parentCount];
+			int[] parentMins = new int[parentCount];
+			int[] parentCounts = new int[parentCount];
+			for (int i = 0, from = 0; i < parentCount; i++) {
+				int to = (int) ((long) level.length * (i + 1) / parentCount);
+				Inner inner = new Inner();
+				for (int c = from; c < to; c++) {
+					int slot = c - from;
+					inner.children[slot] = level[c];
+					inner.counts[slot] = counts[c];
+					if (slot > 0)
+						inner.keys[slot - 1] = mins[c];
+					parentCounts[i] += counts[c];
+				}
+				inner.size = to - from;
+				parents[i] = inner;
+				parentMins[i] = mins[from];
+				from = to;
+			}
+			level = parents;
+			mins = parentMins;
+			counts = parentCounts;
+		}
+
+		tree.root = level[0];
+		tree.size = n;
+		return tree;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(int x) {
+		Node node = root;
+		while (node instanceof Inner) {
+			Inner inner = (Inner) node;
+			node = inner.children[childIndex(inner, x)];
+		}
+		Leaf leaf = (Leaf) node;
+		int pos = lowerBound(leaf.keys, leaf.size, x);
+		return pos < leaf.size && leaf.keys[pos] == x;
+	}
+
+	// number of values smaller than x
+	public int rank(int x) {
+		int rank = 0;
+		Node node = root;
+		while (node instanceof Inner) {
+			Inner inner = (Inner) node;
+			int i = childIndex(inner, x);
+			for (int c = 0; c < i; c++)
+				rank += inner.counts[c];
+			node = inner.children[i];
+		}
+		Leaf leaf = (Leaf) node;
+		return rank + lowerBound(leaf.keys, leaf.size, x);
+	}
+
+	// position of x in ascending order, -1 if absent
+	@Override
+	public int indexOf(int x) {
+		int rank = 0;
+		Node node = root;
+		while (node instanceof Inner) {
+			Inner inner = (Inner) node;
+			int i = childIndex(inner, x);
+			for (int c = 0; c < i; c++)
+				rank += inner.counts[c];
+			node = inner.children[i];
+		}
+		Leaf leaf = (Leaf) node;
+		int pos = lowerBound(leaf.keys, leaf.size, x);
+		return pos < leaf.size && leaf.keys[pos] == x ? rank + pos : -1;
+	}
+
+	// true if x was not present yet
+	public boolean insert(int x) {
+		changed = false;
+		Node split = insert(root, x);
+		if (split != null) {
+			// root split, the tree grows by one level
+			Inner newRoot = new Inner();
+			newRoot.children[0] = root;
+			newRoot.children[1] = split;
+			newRoot.keys[0] = splitKey;
+			newRoot.counts[0] = count(root);
+			newRoot.counts[1] = count(split);
+			newRoot.size = 2;
+			root = newRoot;
+		}
+		if (changed)
+			size++;
+		return changed;
+	}
+
+	// true if x was present
+	public boolean delete(int x) {
+		changed = false;
+		delete(root, x);
+		// an inner root left with a single child is replaced by that child
+		if (root instanceof Inner && root.size == 1)
+			root = ((Inner) root).children[0];
+		if (changed)
+			size--;
+		return changed;
+	}
+
+	// ascending iteration over the values in [fromInclusive, toInclusive]
+	public PrimitiveIterator.OfInt range(int fromInclusive, int toInclusive) {
+		Node node = root;
+		while (node instanceof Inner) {
+			Inner inner = (Inner) node;
+			node = inner.children[childIndex(inner, fromInclusive)];
+		}
+		Leaf first = (Leaf) node;
+		int start = lowerBound(first.keys, first.size, fromInclusive);
+
+		return new PrimitiveIterator.OfInt() {
+			private Leaf leaf = first;
+			private int pos = start;
+
+			@Override
+			public boolean hasNext() {
+				while (leaf != null && pos >= leaf.size) {
+					leaf = leaf.next;
+					pos = 0;
+				}
+				return leaf != null && leaf.keys[pos] <= toInclusive;
+			}
+
+			@Override
+			public int nextInt() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return leaf.keys[pos++];
+			}
+		};
+	}
+
+	public PrimitiveIterator.OfInt iterator() {
+		return range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	public int[] toArray() {
+		int[] values = new int[size];
+		PrimitiveIterator.OfInt it = iterator();
+		for (int i = 0; i < size; i++)
+			values[i] = it.nextInt();
+		return values;
+	}
+
+	// returns the new right sibling if node had to split, its smallest key is left in splitKey
+	private Node insert(Node node, int x) {
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			int pos = lowerBound(leaf.keys, leaf.size, x);
+			if (pos < leaf.size && leaf.keys[pos] == x)
+				return null;
+			changed = true;
+
+			if (leaf.size < LEAF_CAPACITY) {
+				insertAt(leaf.keys, leaf.size, pos, x);
+				leaf.size++;
+				return null;
+			}
+
+			// split the full leaf in two halves, then insert into the proper one
+			Leaf right = new Leaf();
+			int half = LEAF_CAPACITY / 2;
+			System.arraycopy(leaf.keys, half, right.keys, 0, LEAF_CAPACITY - half);
+			right.size = LEAF_CAPACITY - half;
+			leaf.size = half;
+			right.next = leaf.next;
+			leaf.next = right;
+			if (pos <= half) {
+				insertAt(leaf.keys, leaf.size, pos, x);
+				leaf.size++;
+			} else {
+				insertAt(right.keys, right.size, pos - half, x);
+				right.size++;
+			}
+			splitKey = right.keys[0];
+			return right;
+		}
+
+		Inner inner = (Inner) node;
+		int i = childIndex(inner, x);
+		Node childSplit = insert(inner.children[i], x);
+		if (!changed)
+			return null;
+		inner.counts[i]++;
+		if (childSplit == null)
+			return null;
+
+		// the child split, its new right sibling goes in at i + 1
+		int childSplitKey = splitKey;
+		inner.counts[i] = count(inner.children[i]);
+		int childSplitCount = count(childSplit);
+
+		if (inner.size < INNER_CAPACITY) {
+			insertChild(inner, i + 1, childSplitKey, childSplit, childSplitCount);
+			return null;
+		}
+
+		// split the full inner node, the middle key moves up
+		Inner right = new Inner();
+		int half = INNER_CAPACITY / 2;
+		int upKey = inner.keys[half - 1];
+		int moved = INNER_CAPACITY - half;
+		System.arraycopy(inner.children, half, right.children, 0, moved);
+		System.arraycopy(inner.counts, half, right.counts, 0, moved);
+		System.arraycopy(inner.keys, half, right.keys, 0, moved - 1);
+		Arrays.fill(inner.children, half, INNER_CAPACITY, null);
+		right.size = moved;
+		inner.size = half;
+
+		if (i + 1 <= half)
+			insertChild(inner, i + 1, childSplitKey, childSplit, childSplitCount);
+		else
+			insertChild(right, i + 1 - half, childSplitKey, childSplit, childSplitCount);
+
+		splitKey = upKey;
+		return right;
+	}
+
+	private void delete(Node node, int x) {
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			int pos = lowerBound(leaf.keys, leaf.size, x);
+			if (pos < leaf.size && leaf.keys[pos] == x) {
+				System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.size - pos - 1);
+				leaf.size--;
+				changed = true;
+			}
+			return;
+		}
+
+		Inner inner = (Inner) node;
+		int i = childIndex(inner, x);
+		Node child = inner.children[i];
+		delete(child, x);
+		if (!changed)
+			return;
+		inner.counts[i]--;
+
+		int min = child instanceof Leaf ? LEAF_MIN : INNER_MIN;
+		if (child.size < min && inner.size > 1)
+			rebalance(inner, i);
+	}
+
+	// child i of parent is under-full: borrow from a sibling or merge with it
+	private void rebalance(Inner parent, int i) {
+		if (i > 0 && parent.children[i - 1].size > minimum(parent.children[i - 1]))
+			borrowFromLeft(parent, i);
+		else if (i + 1 < parent.size && parent.children[i + 1].size > minimum(parent.children[i + 1]))
+			borrowFromRight(parent, i);
+		else if (i > 0)
+			merge(parent, i - 1);
+		else
+			merge(parent, i);
+	}
+
+	private static int minimum(Node node) {
+		return node instanceof Leaf ? LEAF_MIN : INNER_MIN;
+	}
+
+	private static void borrowFromLeft(Inner parent, int i) {
+		Node child = parent.children[i];
+		Node left = parent.children[i - 1];
+		if (child instanceof Leaf) {
+			Leaf leaf = (Leaf) child, from = (Leaf) left;
+			insertAt(leaf.keys, leaf.size, 0, from.keys[--from.size]);
+			leaf.size++;
+			parent.keys[i - 1] = leaf.keys[0];
+			parent.counts[i - 1]--;
+			parent.counts[i]++;
+		} else {
+			Inner inner = (Inner) child, from = (Inner) left;
+			int last = from.size - 1;
+			Node moved = from.children[last];
+			int movedCount = from.counts[last];
+			// the parent separator comes down, the left sibling's last key goes up
+			insertChildAtFront(inner, parent.keys[i - 1], moved, movedCount);
+			parent.keys[i - 1] = from.keys[last - 1];
+			from.children[last] = null;
+			from.size--;
+			parent.counts[i - 1] -= movedCount;
+			parent.counts[i] += movedCount;
+		}
+	}
+
+	private static void borrowFromRight(Inner parent, int i) {
+		Node child = parent.children[i];
+		Node right = parent.children[i + 1];
+		if (child instanceof Leaf) {
+			Leaf leaf = (Leaf) child, from = (Leaf) right;
+			leaf.keys[leaf.size++] = from.keys[0];
+			System.arraycopy(from.keys, 1, from.keys, 0, --from.size);
+			parent.keys[i] = from.keys[0];
+			parent.counts[i]++;
+			parent.counts[i + 1]--;
+		} else {
+			Inner inner = (Inner) child, from = (Inner) right;
+			Node moved = from.children[0];
+			int movedCount = from.counts[0];
+			// the parent separator comes down, the right sibling's first key goes up
+			inner.keys[inner.size - 1] = parent.keys[i];
+			inner.children[inner.size] = moved;
+			inner.counts[inner.size] = movedCount;
+			inner.size++;
+			parent.keys[i] = from.keys[0];
+			removeChild(from, 0);
+			parent.counts[i] += movedCount;
+			parent.counts[i + 1] -= movedCount;
+		}
+	}
+
+	// merges children[i + 1] of parent into children[i]
+	private static void merge(Inner parent, int i) {
+		Node left = parent.children[i];
+		Node right = parent.children[i + 1];
+		if (left instanceof Leaf) {
+			Leaf into = (Leaf) left, from = (Leaf) right;
+			System.arraycopy(from.keys, 0, into.keys, into.size, from.size);
+			into.size += from.size;
+			into.next = from.next;
+		} else {
+			Inner into = (Inner) left, from = (Inner) right;
+			into.keys[into.size - 1] = parent.keys[i];
+			System.arraycopy(from.keys, 0, into.keys, into.size, from.size - 1);
+			System.arraycopy(from.children, 0, into.children, into.size, from.size);
+			System.arraycopy(from.counts, 0, into.counts, into.size, from.size);
+			into.size += from.size;
+		}
+		parent.counts[i] += parent.counts[i + 1];
+		// drop the separator at i and the child at i + 1
+		System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.size - i - 2);
+		System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.size - i - 2);
+		System.arraycopy(parent.counts, i + 2, parent.counts, i + 1, parent.size - i - 2);
+		parent.children[--parent.size] = null;
+	}
+
+	private static void insertChild(Inner inner, int index, int key, Node child, int count) {
+		// child at index, key separates it from the child before it
+		System.arraycopy(inner.children, index, inner.children, index + 1, inner.size - index);
+		System.arraycopy(inner.counts, index, inner.counts, index + 1, inner.size - index);
+		System.arraycopy(inner.keys, index - 1, inner.keys, index, inner.size - index);
+		inner.children[index] = child;
+		inner.counts[index] = count;
+		inner.keys[index - 1] = key;
+		inner.size++;
+	}
+
+	private static void insertChildAtFront(Inner inner, int key, Node child, int count) {
+		// key separates the new first child from the old one
+		System.arraycopy(inner.children, 0, inner.children, 1, inner.size);
+		System.arraycopy(inner.counts, 0, inner.counts, 1, inner.size);
+		System.arraycopy(inner.keys, 0, inner.keys, 1, inner.size - 1);
+		inner.children[0] = child;
+		inner.counts[0] = count;
+		inner.keys[0] = key;
+		inner.size++;
+	}
+
+	private static void removeChild(Inner inner, int index) {
+		// drops children[index] and the key to its right (to its left for the last child)
+		System.arraycopy(inner.children, index + 1, inner.children, index, inner.size - index - 1);
+		System.arraycopy(inner.counts, index + 1, inner.counts, index, inner.size - index - 1);
+		System.arraycopy(inner.keys, index + 1, inner.keys, index, Math.max(0, inner.size - index - 2));
+		inner.children[--inner.size] = null;
+	}
+
+	private static int count(Node node) {
+		if (node instanceof Leaf)
+			return node.size;
+		Inner inner = (Inner) node;
+		int count = 0;
+		for (int c = 0; c < inner.size; c++)
+			count += inner.counts[c];
+		return count;
+	}
+
+	// index of the child whose range holds x: the number of separators <= x
+	private static int childIndex(Inner inner, int x) {
+		int l = 0, r = inner.size - 1;
+		while (l < r) {
+			int m = (l + r) >>> 1;
+			if (inner.keys[m] <= x)
+				l = m + 1;
+			else
+				r = m;
+		}
+		return l;
+	}
+
+	private static int lowerBound(int[] keys, int size, int x) {
+		int l = 0, r = size;
+		while (l < r) {
+			int m = (l + r) >>> 1;
+			if (keys[m] < x)
+				l = m + 1;
+			else
+				r = m;
+		}
+		return l;
+	}
+
+	private static void insertAt(int[] keys, int size, int pos, int x) {
+		System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+		keys[pos] = x;
+	}
+
+}
@@ -0,0 +1,860 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Compressed sorted set of ints in the style of Roaring bitmaps.
+ * Values are grouped by their high 16 bits; each group stores its low 16 bits in the smallest of
+ * a sorted char array (sparse), a 65536-bit bitmap (dense) or a list of runs (clustered).
+ * Dense or clustered sets take well under the 4 bytes per value of a sorted int[].
+ * Not thread-safe, concurrent writers must synchronize externally.
+ */
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class IntSet implements SortedIntStore {
+
+	// an array container holds at most this many values, beyond that a bitmap is smaller
+	static final int ARRAY_MAX = 4096;
+
+	private static final int BITMAP_WORDS = 1 << 10;
+
+	private static final int SERIAL_COOKIE = 0x524F4152;
+	private static final byte ARRAY = 0, BITMAP = 1, RUN = 2;
+
+	// high 16 bits of each group, flipped so that char order is signed int order
+	private char[] keys = new char[4];
+	private Container[] containers = new Container[4];
+	private int size;
+
+	// number of values in the containers before each container, null after a modification
+	private long[] cumulative;
+
+	public IntSet() {
+	}
+
+	// set of the distinct values, compressed with runOptimize; values is not modified
+	public static IntSet of(int... values) {
+		int[] sorted = values.clone();
+		Arrays.sort(sorted);
+		IntSet set = new IntSet();
+		int i = 0;
+		while (i < sorted.length) {
+			char high = high(sorted[i]);
+			char[] low = new char[Math.min(sorted.length - i, 1 << 16)];
+			int count = 0;
+			for (; i < sorted.length && high(sorted[i]) == high; i++)
+				if (count == 0 || low[count - 1] != low(sorted[i]))
+					low[count++] = low(sorted[i]);
+			set.append(high, Container.of(low, count));
+		}
+		set.runOptimize();
+		return set;
+	}
+
+	// number of values
+	public long cardinality() {
+		long cardinality = 0;
+		for (int i = 0; i < size; i++)
+			cardinality += containers[i].cardinality();
+		return cardinality;
+	}
+
+	@Override
+	public int size() {
+		return Math.toIntExact(cardinality());
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean contains(int x) {
+		int i = find(high(x));
+		return i >= 0 && containers[i].contains(low(x));
+	}
+
+	// position of x in ascending order, -1 if absent
+	@Override
+	public int indexOf(int x) {
+		return contains(x) ? Math.toIntExact(rank(x)) : -1;
+	}
+
+	// true if x was not present yet
+	public boolean add(int x) {
+		char high = high(x);
+		int i = find(high);
+		if (i < 0) {
+			insert(-i - 1, high, new ArrayContainer(low(x)));
+			return true;
+		}
+		Container container = containers[i];
+		int before = container.cardinality();
+		containers[i] = container.add(low(x));
+		if (containers[i].cardinality() == before)
+			return false;
+		cumulative = null;
+		return true;
+	}
+
+	// number of values smaller than x
+	public long rank(int x) {
+		long[] cumulative = cumulative();
+		int i = find(high(x));
+		if (i < 0)
+			return cumulative[-i - 1];
+		return cumulative[i] + containers[i].rank(low(x));
+	}
+
+	// the i-th smallest value, counting from 0
+	public int select(long i) {
+		long[] cumulative = cumulative();
+		if (i < 0 || i >= cumulative[size])
+			throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + cumulative[size]);
+		// last container starting at or before i
+		int l = 0, r = size - 1;
+		while (l < r) {
+			int m = (l + r + 1) >>> 1;
+			if (cumulative[m] <= i)
+				l = m;
+			else
+				r = m - 1;
+		}
+		return value(keys[l], containers[l].select((int) (i - cumulative[l])));
+	}
+
+	public IntSet union(IntSet other) {
+		IntSet result = new IntSet();
+		int i = 0, j = 0;
+		while (i < size || j < other.size) {
+			if (j == other.size || i < size && keys[i] < other.keys[j]) {
+				result.append(keys[i], containers[i].copy());
+				i++;
+			} else if (i == size || other.keys[j] < keys[i]) {
+				result.append(other.keys[j], other.containers[j].copy());
+				j++;
+			} else {
+				result.append(keys[i], containers[i].or(other.containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	public IntSet intersection(IntSet other) {
+		IntSet result = new IntSet();
+		int i = 0, j = 0;
+		while (i < size && j < other.size) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (other.keys[j] < keys[i]) {
+				j++;
+			} else {
+				Container container = containers[i].and(other.containers[j]);
+				if (container != null)
+					result.append(keys[i], container);
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	// converts every container to its smallest representation, runs included
+	public void runOptimize() {
+		for (int i = 0; i < size; i++)
+			containers[i] = containers[i].optimize();
+	}
+
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			int base = (keys[i] ^ 0x8000) << 16;
+			containers[i].forEach(low -> action.accept(base | low));
+		}
+	}
+
+	public int[] toArray() {
+		int[] values = new int[size()];
+		int[] next = new int[1];
+		forEach(x -> values[next[0]++] = x);
+		return values;
+	}
+
+	public int serializedSizeInBytes() {
+		int bytes = 8;
+		for (int i = 0; i < size; i++)
+			bytes += 3 + containers[i].serializedSizeInBytes();
+		return bytes;
+	}
+
+	// writes the set at the buffer's position, in the buffer's byte order
+	public void serialize(ByteBuffer buffer) {
+		buffer.putInt(SERIAL_COOKIE);
+		buffer.putInt(size);
+		for (int i = 0; i < size; i++) {
+			buffer.putChar(keys[i]);
+			buffer.put(containers[i].type());
+			containers[i].write(buffer);
+		}
+	}
+
+	// reads a set written by serialize, the buffer must have the same byte order;
+	// truncated or corrupt input fails with an IllegalArgumentException before anything is allocated for it
+	public static IntSet deserialize(ByteBuffer buffer) {
+		require(buffer, 8, "header");
+		if (buffer.getInt() != SERIAL_COOKIE)
+			throw new IllegalArgumentException("Not a serialized IntSet");
+		int count = buffer.getInt();
+		if (count < 0 || count > 1 << 16)
+			throw new IllegalArgumentException("Invalid container count " + count);
+		// every container takes at least its 3 byte header and a 2 byte length
+		require(buffer, 5L * count, count + " containers");
+		IntSet set = new IntSet();
+		for (int i = 0; i < count; i++) {
+			require(buffer, 3, "container header");
+			char key = buffer.getChar();
+			byte type = buffer.get();
+			Container container;
+			if (type == ARRAY)
+				container = ArrayContainer.read(buffer);
+			else if (type == BITMAP)
+				container = BitmapContainer.read(buffer);
+			else if (type == RUN)
+				container = RunContainer.read(buffer);
+			else
+				throw new IllegalArgumentException("Unknown container type " + type);
+			if (i > 0 && key <= set.keys[i - 1])
+				throw new IllegalArgumentException("Container keys out of order");
+			set.append(key, container);
+		}
+		return set;
+	}
+
+	private static void require(ByteBuffer buffer, long bytes, String what) {
+		if (buffer.remaining() < bytes)
+			throw new IllegalArgumentException("Truncated IntSet: " + what + " needs " + bytes + " bytes, "
+					+ buffer.remaining() + " left");
+	}
+
+	private static char high(int x) {
+		return (char) ((x >>> 16) ^ 0x8000);
+	}
+
+	private static char low(int x) {
+		return (char) x;
+	}
+
+	private static int value(char high, char low) {
+		return (high ^ 0x8000) << 16 | low;
+	}
+
+	private int find(char high) {
+		int l = 0, r = size - 1;
+		while (l <= r) {
+			int m = (l + r) >>> 1;
+			if (keys[m] < high)
+				l = m + 1;
+			else if (keys[m] > high)
+				r = m - 1;
+			else
+				return m;
+		}
+		return -(l + 1);
+	}
+
+	private void append(char high, Container container) {
+		insert(size, high, container);
+	}
+
+	private void insert(int i, char high, Container container) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(containers, i, containers, i + 1, size - i);
+		keys[i] = high;
+		containers[i] = container;
+		size++;
+		cumulative = null;
+	}
+
+	private long[] cumulative() {
+		long[] cumulative = this.cumulative;
+		if (cumulative == null) {
+			cumulative = new long[size + 1];
+			for (int i = 0; i < size; i++)
+				cumulative[i + 1] = cumulative[i] + containers[i].cardinality();
+			this.cumulative = cumulative;
+		}
+		return cumulative;
+	}
+
+	// the low 16 bits of one group of values, never empty
+	private abstract static class Container {
+
+		abstract int cardinality();
+
+		abstract boolean contains(char v);
+
+		// the container holding v as well, either this or a converted one
+		abstract Container add(char v);
+
+		// number of values smaller than v
+		abstract int rank(char v);
+
+		abstract char select(int i);
+
+		abstract void orInto(long[] words);
+
+		abstract void forEach(IntConsumer action);
+
+		abstract int runCount();
+
+		abstract Container copy();
+
+		abstract byte type();
+
+		abstract int serializedSizeInBytes();
+
+		abstract void write(ByteBuffer buffer);
+
+		// null if the intersection is empty
+		Container and(Container other) {
+			if (other instanceof ArrayContainer)
+				return other.and(this);
+			long[] words = words();
+			long[] otherWords = other.words();
+			for (int w = 0; w < BITMAP_WORDS; w++)
+				words[w] &= otherWords[w];
+			return ofWords(words);
+		}
+
+		Container or(Container other) {
+			long[] words = words();
+			other.orInto(words);
+			return ofWords(words);
+		}
+
+		long[] words() {
+			long[] words = new long[BITMAP_WORDS];
+			orInto(words);
+			return words;
+		}
+
+		char[] values() {
+			char[] values = new char[cardinality()];
+			int[] next = new int[1];
+			forEach(v -> values[next[0]++] = (char) v);
+			return values;
+		}
+
+		// smallest of the array, bitmap and run representations
+		Container optimize() {
+			int cardinality = cardinality();
+			int arrayBytes = 2 * cardinality;
+			int bitmapBytes = 8 * BITMAP_WORDS;
+			int runBytes = 4 * runCount();
+			if (runBytes < Math.min(arrayBytes, bitmapBytes))
+				return this instanceof RunContainer ? this : RunContainer.of(values(), cardinality);
+			if (arrayBytes <= bitmapBytes)
+				return this instanceof ArrayContainer ? this : new ArrayContainer(values(), cardinality);
+			return this instanceof BitmapContainer ? this : new BitmapContainer(words(), cardinality);
+		}
+
+		// array or bitmap for count sorted distinct values
+		static Container of(char[] values, int count) {
+			if (count <= ARRAY_MAX)
+				return new ArrayContainer(Arrays.copyOf(values, count), count);
+			long[] words = new long[BITMAP_WORDS];
+			for (int i = 0; i < count; i++)
+				words[values[i] >>> 6] |= 1L << values[i];
+			return new BitmapContainer(words, count);
+		}
+
+		static Container ofWords(long[] words) {
+			int cardinality = 0;
+			for (long word : words)
+				cardinality += Long.bitCount(word);
+			if (cardinality == 0)
+				return null;
+			if (cardinality > ARRAY_MAX)
+				return new BitmapContainer(words, cardinality);
+			char[] values = new char[cardinality];
+			int n = 0;
+			for (int w = 0; w < BITMAP_WORDS; w++)
+				for (long word = words[w]; word != 0; word &= word - 1)
+					values[n++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+			return new ArrayContainer(values, cardinality);
+		}
+	}
+
+	// sorted distinct low halves, at most ARRAY_MAX of them
+	private static final class ArrayContainer extends Container {
+		private char[] values;
+		private int cardinality;
+
+		ArrayContainer(char v) {
+			this.values = new char[] { v, 0, 0, 0 };
+			this.cardinality = 1;
+		}
+
+		ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(char v) {
+			return Arrays.binarySearch(values, 0, cardinality, v) >= 0;
+		}
+
+		@Override
+		Container add(char v) {
+			int i = Arrays.binarySearch(values, 0, cardinality, v);
+			if (i >= 0)
+				return this;
+			if (cardinality == ARRAY_MAX)
+				return new BitmapContainer(words(), cardinality).add(v);
+			i = -i - 1;
+			if (cardinality == values.length)
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+			System.arraycopy(values, i, values, i + 1, cardinality - i);
+			values[i] = v;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		int rank(char v) {
+			int i = Arrays.binarySearch(values, 0, cardinality, v);
+			return i >= 0 ? i : -i - 1;
+		}
+
+		@Override
+		char select(int i) {
+			return values[i];
+		}
+
+		@Override
+		void orInto(long[] words) {
+			for (int i = 0; i < cardinality; i++)
+				words[values[i] >>> 6] |= 1L << values[i];
+		}
+
+		@Override
+		void forEach(IntConsumer action) {
+			for (int i = 0; i < cardinality; i++)
+				action.accept(values[i]);
+		}
+
+		@Override
+		int runCount() {
+			int runs = 0;
+			for (int i = 0; i < cardinality; i++)
+				if (i == 0 || values[i] != values[i - 1] + 1)
+					runs++;
+			return runs;
+		}
+
+		@Override
+		Container and(Container other) {
+			char[] result = new char[cardinality];
+			int n = 0;
+			for (int i = 0; i < cardinality; i++)
+				if (other.contains(values[i]))
+					result[n++] = values[i];
+			return n == 0 ? null : new ArrayContainer(result, n);
+		}
+
+		@Override
+		Container or(Container other) {
+			if (!(other instanceof ArrayContainer))
+				return super.or(other);
+			ArrayContainer that = (ArrayContainer) other;
+			char[] merged = new char[cardinality + that.cardinality];
+			int i = 0, j = 0, n = 0;
+			while (i < cardinality && j < that.cardinality) {
+				char a = values[i], b = that.values[j];
+				merged[n++] = a <= b ? a : b;
+				if (a <= b)
+					i++;
+				if (b <= a)
+					j++;
+			}
+			while (i < cardinality)
+				merged[n++] = values[i++];
+			while (j < that.cardinality)
+				merged[n++] = that.values[j++];
+			return Container.of(merged, n);
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+		}
+
+		@Override
+		byte type() {
+			return ARRAY;
+		}
+
+		@Override
+		int serializedSizeInBytes() {
+			return 2 + 2 * cardinality;
+		}
+
+		// cardinality - 1, so that a full 65536 would still fit a char
+		@Override
+		void write(ByteBuffer buffer) {
+			buffer.putChar((char) (cardinality - 1));
+			for (int i = 0; i < cardinality; i++)
+				buffer.putChar(values[i]);
+		}
+
+		static ArrayContainer read(ByteBuffer buffer) {
+			require(buffer, 2, "array container");
+			int cardinality = buffer.getChar() + 1;
+			if (cardinality > ARRAY_MAX)
+				throw new IllegalArgumentException("Array container of " + cardinality + " values, at most "
+						+ ARRAY_MAX + " allowed");
+			require(buffer, 2L * cardinality, "array container of " + cardinality + " values");
+			char[] values = new char[cardinality];
+			for (int i = 0; i < cardinality; i++) {
+				values[i] = buffer.getChar();
+				if (i > 0 && values[i] <= values[i - 1])
+					throw new IllegalArgumentException("Array container values out of order");
+			}
+			return new ArrayContainer(values, cardinality);
+		}
+	}
+
+	// one bit per possible low half
+	private static final class BitmapContainer extends Container {
+		private final long[] words;
+		private int cardinality;
+
+		BitmapContainer(long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(char v) {
+			return (words[v >>> 6] & 1L << v) != 0;
+		}
+
+		@Override
+		Container add(char v) {
+			long word = words[v >>> 6];
+			if ((word & 1L << v) == 0) {
+				words[v >>> 6] = word | 1L << v;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		int rank(char v) {
+			int rank = 0;
+			int w = v >>> 6;
+			for (int i = 0; i < w; i++)
+				rank += Long.bitCount(words[i]);
+			return rank + Long.bitCount(words[w] & (1L << v) - 1);
+		}
+
+		@Override
+		char select(int i) {
+			int w = 0;
+			for (int count; (count = Long.bitCount(words[w])) <= i; w++)
+				i -= count;
+			long word = words[w];
+			for (; i > 0; i--)
+				word &= word - 1;
+			return (char) (w << 6 | Long.numberOfTrailingZeros(word));
+		}
+
+		@Override
+		void orInto(long[] words) {
+			for (int w = 0; w < BITMAP_WORDS; w++)
+				words[w] |= this.words[w];
+		}
+
+		@Override
+		long[] words() {
+			return words.clone();
+		}
+
+		@Override
+		void forEach(IntConsumer action) {
+			for (int w = 0; w < BITMAP_WORDS; w++)
+				for (long word = words[w]; word != 0; word &= word - 1)
+					action.accept(w << 6 | Long.numberOfTrailingZeros(word));
+		}
+
+		// a run starts at every set bit whose lower neighbour is clear
+		@Override
+		int runCount() {
+			int runs = 0;
+			long carry = 0;
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				long word = words[w];
+				runs += Long.bitCount(word & ~(word << 1 | carry));
+				carry = word >>> 63;
+			}
+			return runs;
+		}
+
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+		@Override
+		byte type() {
+			return BITMAP;
+		}
+
+		@Override
+		int serializedSizeInBytes() {
+			return 8 * BITMAP_WORDS;
+		}
+
+		@Override
+		void write(ByteBuffer buffer) {
+			for (long word : words)
+				buffer.putLong(word);
+		}
+
+		static BitmapContainer read(ByteBuffer buffer) {
+			require(buffer, 8L * BITMAP_WORDS, "bitmap container");
+			long[] words = new long[BITMAP_WORDS];
+			int cardinality = 0;
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				words[w] = buffer.getLong();
+				cardinality += Long.bitCount(words[w]);
+			}
+			return new BitmapContainer(words, cardinality);
+		}
+	}
+
+	// sorted, non-adjacent runs stored as (start, length - 1) pairs
+	private static final class RunContainer extends Container {
+		private char[] runs;
+		private int runCount;
+		private int cardinality;
+
+		RunContainer(char[] runs, int runCount) {
+			this.runs = runs;
+			this.runCount = runCount;
+			for (int i = 0; i < runCount; i++)
+				cardinality += runs[2 * i + 1] + 1;
+		}
+
+		static RunContainer of(char[] values, int count) {
+			char[] runs = new char[8];
+			int n = 0;
+			for (int i = 0; i < count; ) {
+				int start = i;
+				while (i + 1 < count && values[i + 1] == values[i] + 1)
+					i++;
+				if (2 * n == runs.length)
+					runs = Arrays.copyOf(runs, runs.length * 2);
+				runs[2 * n] = values[start];
+				runs[2 * n + 1] = (char) (i - start);
+				n++;
+				i++;
+			}
+			return new RunContainer(runs, n);
+		}
+
+		private int start(int i) {
+			return runs[2 * i];
+		}
+
+		private int end(int i) {
+			return runs[2 * i] + runs[2 * i + 1];
+		}
+
+		// last run starting at or before v, -1 if none
+		private int floorRun(int v) {
+			int l = 0, r = runCount - 1;
+			while (l <= r) {
+				int m = (l + r) >>> 1;
+				if (start(m) <= v)
+					l = m + 1;
+				else
+					r = m - 1;
+			}
+			return r;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(char v) {
+			int i = floorRun(v);
+			return i >= 0 && v <= end(i);
+		}
+
+		@Override
+		Container add(char v) {
+			int i = floorRun(v);
+			if (i >= 0 && v <= end(i))
+				return this;
+			boolean extendsLeft = i >= 0 && end(i) + 1 == v;
+			boolean extendsRight = i + 1 < runCount && start(i + 1) - 1 == v;
+			if (extendsLeft && extendsRight) {
+				// v closes the gap between run i and run i + 1
+				runs[2 * i + 1] = (char) (end(i + 1) - start(i));
+				System.arraycopy(runs, 2 * (i + 2), runs, 2 * (i + 1), 2 * (runCount - i - 2));
+				runCount--;
+			} else if (extendsLeft) {
+				runs[2 * i + 1]++;
+			} else if (extendsRight) {
+				runs[2 * (i + 1)] = v;
+				runs[2 * (i + 1) + 1]++;
+			} else {
+				if (2 * runCount == runs.length)
+					runs = Arrays.copyOf(runs, runs.length * 2);
+				System.arraycopy(runs, 2 * (i + 1), runs, 2 * (i + 2), 2 * (runCount - i - 1));
+				runs[2 * (i + 1)] = v;
+				runs[2 * (i + 1) + 1] = 0;
+				runCount++;
+			}
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		int rank(char v) {
+			int rank = 0;
+			for (int i = 0; i < runCount && start(i) < v; i++)
+				rank += Math.min(end(i) + 1, v) - start(i);
+			return rank;
+		}
+
+		@Override
+		char select(int i) {
+			for (int r = 0; ; r++) {
+				int length = runs[2 * r + 1] + 1;
+				if (i < length)
+					return (char) (start(r) + i);
+				i -= length;
+			}
+		}
+
+		@Override
+		void orInto(long[] words) {
+			for (int i = 0; i < runCount; i++) {
+				int from = start(i), to = end(i) + 1;
+				int first = from >>> 6, last = (to - 1) >>> 6;
+				if (first == last) {
+					words[first] |= -1L << from & -1L >>> -to;
+				} else {
+					words[first] |= -1L << from;
+					for (int w = first + 1; w < last; w++)
+						words[w] = -1L;
+					words[last] |= -1L >>> -to;
+				}
+			}
+		}
+
+		@Override
+		void forEach(IntConsumer action) {
+			for (int i = 0; i < runCount; i++)
+				for (int v = start(i), end = end(i); v <= end; v++)
+					action.accept(v);
+		}
+
+		@Override
+		int runCount() {
+			return runCount;
+		}
+
+		@Override
+		Container or(Container other) {
+			if (!(other instanceof RunContainer))
+				return super.or(other);
+			// merge both run lists, joining overlapping or adjacent runs
+			RunContainer that = (RunContainer) other;
+			char[] merged = new char[2 * (runCount + that.runCount)];
+			int i = 0, j = 0, n = 0;
+			while (i < runCount || j < that.runCount) {
+				int start, end;
+				if (j == that.runCount || i < runCount && start(i) <= that.start(j)) {
+					start = start(i);
+					end = end(i++);
+				} else {
+					start = that.start(j);
+					end = that.end(j++);
+				}
+				if (n > 0 && start <= merged[2 * n - 2] + merged[2 * n - 1] + 1) {
+					int previousStart = merged[2 * n - 2];
+					int previousEnd = previousStart + merged[2 * n - 1];
+					merged[2 * n - 1] = (char) (Math.max(previousEnd, end) - previousStart);
+				} else {
+					merged[2 * n] = (char) start;
+					merged[2 * n + 1] = (char) (end - start);
+					n++;
+				}
+			}
+			return new RunContainer(merged, n);
+		}
+
+		@Override
+		Container copy() {
+			return new RunContainer(Arrays.copyOf(runs, 2 * runCount), runCount);
+		}
+
+		@Override
+		byte type() {
+			return RUN;
+		}
+
+		@Override
+		int serializedSizeInBytes() {
+			return 2 + 4 * runCount;
+		}
+
+		@Override
+		void write(ByteBuffer buffer) {
+			buffer.putChar((char) runCount);
+			for (int i = 0; i < 2 * runCount; i++)
+				buffer.putChar(runs[i]);
+		}
+
+		static RunContainer read(ByteBuffer buffer) {
+			require(buffer, 2, "run container");
+			int runCount = buffer.getChar();
+			require(buffer, 4L * runCount, "run container of " + runCount + " runs");
+			char[] runs = new char[Math.max(2, 2 * runCount)];
+			int next = 0;
+			for (int i = 0; i < runCount; i++) {
+				int start = buffer.getChar(), last = start + buffer.getChar();
+				if (start < next || last > Character.MAX_VALUE)
+					throw new IllegalArgumentException("Run container runs out of order or past 65535");
+				runs[2 * i] = (char) start;
+				runs[2 * i + 1] = (char) (last - start);
+				next = last + 1;
+			}
+			return new RunContainer(runs, runCount);
+		}
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Bitonic sorting network on IntVector lanes.
+ * Only loaded by VectorBitonicSort when the jdk.incubator.vector module is present.
+ */
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+final class IntVectorBitonicKernel {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	static final int LANES = SPECIES.length();
+
+	private static final int LOG_LANES = Integer.numberOfTrailingZeros(LANES);
+
+	// partner lane i ^ j for every in-vector distance j = 1, 2, 4, ..., indexed by log2(j)
+	private static final VectorShuffle<Integer>[] PARTNER;
+
+	// lanes i with (i & j) == 0, the lower end of each compare-exchange pair, indexed by log2(j)
+	private static final VectorMask<Integer>[] LOWER;
+
+	// lanes keeping the minimum when the direction changes inside a vector (k < LANES), indexed by [log2(k)][log2(j)]
+	private static final VectorMask<Integer>[][] TAKE_MIN;
+
+	static {
+		@SuppressWarnings("unchecked")
+		VectorShuffle<Integer>[] partner = new VectorShuffle[LOG_LANES];
+		@SuppressWarnings("unchecked")
+		VectorMask<Integer>[] lower = new VectorMask[LOG_LANES];
+		@SuppressWarnings("unchecked")
+		VectorMask<Integer>[][] takeMin = new VectorMask[LOG_LANES][LOG_LANES];
+
+		for (int logJ = 0; logJ < LOG_LANES; logJ++) {
+			int j = 1 << logJ;
+			partner[logJ] = VectorShuffle.fromOp(SPECIES, i -> i ^ j);
+			boolean[] isLower = new boolean[LANES];
+			for (int i = 0; i < LANES; i++)
+				isLower[i] = (i & j) == 0;
+			lower[logJ] = VectorMask.fromArray(SPECIES, isLower, 0);
+
+			for (int logK = logJ + 1; logK < LOG_LANES; logK++) {
+				int k = 1 << logK;
+				boolean[] keepMin = new boolean[LANES];
+				for (int i = 0; i < LANES; i++)
+					keepMin[i] = isLower[i] == ((i & k) == 0);
+				takeMin[logK][logJ] = VectorMask.fromArray(SPECIES, keepMin, 0);
+			}
+		}
+
+		PARTNER = partner;
+		LOWER = lower;
+		TAKE_MIN = takeMin;
+	}
+
+	private IntVectorBitonicKernel() {
+	}
+
+	// sorts a[0..length), length a power of two and a multiple of LANES
+	static void sort(int[] a, int length) {
+		for (int k = 2; k <= length; k <<= 1) {
+			int logK = Integer.numberOfTrailingZeros(k);
+			for (int j = k >> 1; j > 0; j >>= 1) {
+				if (j >= LANES)
+					acrossVectors(a, length, j, k);
+				else
+					withinVectors(a, length, j, k, logK);
+			}
+		}
+	}
+
+	// pairs are LANES or more apart: plain vertical min/max of two vectors
+	private static void acrossVectors(int[] a, int length, int j, int k) {
+		for (int block = 0; block < length; block += 2 * j) {
+			boolean ascending = (block & k) == 0;
+			for (int i = block; i < block + j; i += LANES) {
+				IntVector low = IntVector.fromArray(SPECIES, a, i);
+				IntVector high = IntVector.fromArray(SPECIES, a, i + j);
+				IntVector min = low.min(high);
+				IntVector max = low.max(high);
+				(ascending ? min : max).intoArray(a, i);
+				(ascending ? max : min).intoArray(a, i + j);
+			}
+		}
+	}
+
+	// pairs share a vector: compare against the shuffled partner and keep min or max per lane
+	private static void withinVectors(int[] a, int length, int j, int k, int logK) {
+		int logJ = Integer.numberOfTrailingZeros(j);
+		VectorShuffle<Integer> partner = PARTNER[logJ];
+		VectorMask<Integer> lower = LOWER[logJ];
+		VectorMask<Integer> higher = lower.not();
+
+		for (int i = 0; i < length; i += LANES) {
+			VectorMask<Integer> keepMin;
+			if (k < LANES)
+				keepMin = TAKE_MIN[logK][logJ];
+			else
+				keepMin = (i & k) == 0 ? lower : higher;
+
+			IntVector v = IntVector.fromArray(SPECIES, a, i);
+			IntVector w = v.rearrange(partner);
+			v.max(w).blend(v.min(w), keepMin).intoArray(a, i);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SearchStrategy: InterpolationSearch
+ * Probes where x would sit if the values were evenly spread between the two ends of the range,
+ * about log2(log2(n)) probes on uniform keys.
+ * Whenever a probe fails to halve the range a bisection step follows,
+ * so skewed data still needs at most O(log n) probes.
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+@Component
+@Qualifier("interpolation")
+public class InterpolationSearch implements SearchStrategy {
+
+	@Override
+	public int search(int[] sorted, int x) {
+		int l = 0, r = sorted.length - 1;
+		while (l <= r) {
+			int low = sorted[l], high = sorted[r];
+			if (x < low || x > high)
+				return -1;
+			if (low == high)
+				return l;
+
+			int width = r - l;
+			int m = interpolate(l, r, low, high, x);
+			if (sorted[m] == x)
+				return m;
+			if (sorted[m] < x)
+				l = m + 1;
+			else
+				r = m - 1;
+
+			// the guess was poor, bisect what is left
+			if (r - l > width / 2) {
+				m = l + (r - l) / 2;
+				if (sorted[m] == x)
+					return m;
+				if (sorted[m] < x)
+					l = m + 1;
+				else
+					r = m - 1;
+			}
+		}
+		return -1;
+	}
+
+	// estimated position of x in [l, r], assuming low <= x <= high and low < high
+	static int interpolate(int l, int r, int low, int high, int x) {
+		double fraction = ((double) x - low) / ((double) high - low);
+		return l + (int) (fraction * (r - l));
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SearchStrategy: InterpolationSequentialSearch
+ * A single interpolation probe, then a linear scan toward x.
+ * On near-uniform keys x is only a few slots away and the scan stays within one or two cache lines.
+ * The scan gives up after SCAN_LIMIT slots and bisects the rest of the range, which keeps the
+ * worst case at O(log n).
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+@Component
+@Qualifier("interpolation-sequential")
+public class InterpolationSequentialSearch implements SearchStrategy {
+
+	// slots scanned before falling back to bisection
+	static final int SCAN_LIMIT = 32;
+
+	@Override
+	public int search(int[] sorted, int x) {
+		int r = sorted.length - 1;
+		if (r < 0)
+			return -1;
+		int low = sorted[0], high = sorted[r];
+		if (x < low || x > high)
+			return -1;
+		if (low == high)
+			return 0;
+
+		int m = InterpolationSearch.interpolate(0, r, low, high, x);
+		if (sorted[m] == x)
+			return m;
+
+		if (sorted[m] < x) {
+			int end = Math.min(r, m + SCAN_LIMIT);
+			for (int i = m + 1; i <= end; i++) {
+				if (sorted[i] >= x)
+					return sorted[i] == x ? i : -1;
+			}
+			return BinarySearchStrategy.search(sorted, end + 1, r, x);
+		}
+
+		int end = Math.max(0, m - SCAN_LIMIT);
+		for (int i = m - 1; i >= end; i--) {
+			if (sorted[i] <= x)
+				return sorted[i] == x ? i : -1;
+		}
+		return BinarySearchStrategy.search(sorted, 0, end - 1, x);
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SelectionAlgorithm: IntroSelect
+ * Quickselect with median-of-three pivots, switching to a heap based selection
+ * when partitioning stops making progress, so the worst case stays O(n log k)
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+@Component
+@Qualifier("introselect")
+public class IntroSelect implements SelectionAlgorithm {
+
+	// ranges shorter than this are finished with insertion sort
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	@Override
+	public void select(int[] arr, int k) {
+		int n = arr.length;
+		if (k < 0 || k >= n)
+			throw new IndexOutOfBoundsException("k " + k + " out of bounds for length " + n);
+
+		int low = 0, high = n - 1;
+		int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(n));
+		while (high - low >= INSERTION_SORT_THRESHOLD) {
+			if (depthLimit-- == 0) {
+				heapSelect(arr, low, high, k);
+				return;
+			}
+
+			int mid = (low + high) >>> 1;
+			int pivot = medianOfThree(arr[low], arr[mid], arr[high]);
+
+			// three-way partition: [< pivot] [== pivot] [> pivot]
+			int lt = low, i = low, gt = high;
+			while (i <= gt) {
+				int value = arr[i];
+				if (value < pivot) {
+					arr[i++] = arr[lt];
+					arr[lt++] = value;
+				} else if (value > pivot) {
+					arr[i] = arr[gt];
+					arr[gt--] = value;
+				} else {
+					i++;
+				}
+			}
+
+			// keep only the part that holds position k
+			if (k < lt)
+				high = lt - 1;
+			else if (k > gt)
+				low = gt + 1;
+			else
+				return;
+		}
+
+		IntroSort.insertionSort(arr, low, high);
+	}
+
+	@Override
+	public void partialSort(int[] arr, int k) {
+		int n = arr.length;
+		if (k < 0 || k > n)
+			throw new IndexOutOfBoundsException("k " + k + " out of bounds for length " + n);
+		if (k == 0)
+			return;
+
+		if (k < n)
+			select(arr, k - 1);
+
+		// everything before k - 1 is now <= arr[k - 1], only that prefix needs ordering
+		int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(k));
+		new IntroSort().sort(arr, 0, k - 1, depthLimit);
+	}
+
+	// O(n log m) fallback: max-heap of the m = k - low + 1 smallest values of arr[low..high]
+	static void heapSelect(int[] arr, int low, int high, int k) {
+		int size = k - low + 1;
+		for (int i = size / 2 - 1; i >= 0; i--)
+			IntroSort.siftDown(arr, low, i, size);
+
+		// anything smaller than the heap root replaces it
+		for (int i = low + size; i <= high; i++) {
+			if (arr[i] < arr[low]) {
+				int temp = arr[i];
+				arr[i] = arr[low];
+				arr[low] = temp;
+				IntroSort.siftDown(arr, low, 0, size);
+			}
+		}
+
+		// the root is the largest of the smallest m, i.e. the k-th smallest
+		int temp = arr[low];
+		arr[low] = arr[k];
+		arr[k] = temp;
+	}
+
+	private static int medianOfThree(int a, int b, int c) {
+		return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SortAlgorithm: IntroSort
+ * Dual-pivot quicksort with an insertion sort cutoff,
+ * switching to an iterative heapsort when recursion gets too deep
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+@Component
+@Qualifier("intro")
+public class IntroSort implements SortAlgorithm {
+
+	// ranges shorter than this are finished with insertion sort
+	static final int INSERTION_SORT_THRESHOLD = 32;
+
+	@Override
+	public void sort(int[] arr) {
+		int n = arr.length;
+		if (n < 2)
+			return;
+
+		// depth limit of 2 * log2(n) keeps the worst case at O(n log n)
+		int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(n));
+		sort(arr, 0, n - 1, depthLimit);
+	}
+
+	// in place, no copy of the range
+	@Override
+	public void sort(int[] arr, int from, int to) {
+		int n = to - from;
+		if (n < 2)
+			return;
+		int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(n));
+		sort(arr, from, to - 1, depthLimit);
+	}
+
+	void sort(int[] arr, int low, int high, int depthLimit) {
+		// loop on the largest partition, recurse on the other two
+		while (high - low >= INSERTION_SORT_THRESHOLD) {
+			if (depthLimit-- == 0) {
+				heapSort(arr, low, high);
+				return;
+			}
+
+			// pick the pivots as the 2nd and 4th of five sorted samples
+			int third = (high - low) / 6;
+			int e1 = low + third, e5 = high - third;
+			int e3 = (low + high) >>> 1;
+			int e2 = (e1 + e3) >>> 1, e4 = (e3 + e5) >>> 1;
+			sortFive(arr, e1, e2, e3, e4, e5);
+
+			int pivot1 = arr[e2];
+			int pivot2 = arr[e4];
+			arr[e2] = arr[low];
+			arr[e4] = arr[high];
+
+			// partition into [< pivot1] [pivot1..pivot2] [> pivot2]
+			int less = low + 1;
+			int great = high - 1;
+			for (int k = less; k <= great; k++) {
+				int value = arr[k];
+				if (value < pivot1) {
+					arr[k] = arr[less];
+					arr[less++] = value;
+				} else if (value > pivot2) {
+					while (arr[great] > pivot2 && k < great)
+						great--;
+					arr[k] = arr[great];
+					arr[great--] = value;
+					value = arr[k];
+					if (value < pivot1) {
+						arr[k] = arr[less];
+						arr[less++] = value;
+					}
+				}
+			}
+
+			// move the pivots to their final positions
+			arr[low] = arr[less - 1];
+			arr[less - 1] = pivot1;
+			arr[high] = arr[great + 1];
+			arr[great + 1] = pivot2;
+
+			int leftLength = less - 1 - low;
+			int middleLength = great - less + 1;
+			int rightLength = high - great - 1;
+
+			// middle part only needs sorting when the pivots differ
+			boolean sortMiddle = pivot1 < pivot2;
+
+			if (leftLength >= middleLength && leftLength >= rightLength) {
+				if (sortMiddle)
+					sort(arr, less, great, depthLimit);
+				sort(arr, great + 2, high, depthLimit);
+				high = less - 2;
+			} else if (rightLength >= middleLength || !sortMiddle) {
+				sort(arr, low, less - 2, depthLimit);
+				if (sortMiddle)
+					sort(arr, less, great, depthLimit);
+				low = great + 2;
+			} else {
+				sort(arr, low, less - 2, depthLimit);
+				sort(arr, great + 2, high, depthLimit);
+				low = less;
+				high = great;
+			}
+		}
+
+		insertionSort(arr, low, high);
+	}
+
+	static void insertionSort(int[] arr, int low, int high) {
+		for (int i = low + 1; i <= high; i++) {
+			int value = arr[i];
+			int j = i - 1;
+			while (j >= low && arr[j] > value) {
+				arr[j + 1] = arr[j];
+				j--;
+			}
+			arr[j + 1] = value;
+		}
+	}
+
+	// iterative heapsort of arr[low..high]
+	static void heapSort(int[] arr, int low, int high) {
+		int n = high - low + 1;
+
+		// Build heap (rearrange range)
+		for (int i = n / 2 - 1; i >= 0; i--)
+			siftDown(arr, low, i, n);
+
+		// One by one move the current root to the end
+		for (int end = n - 1; end > 0; end--) {
+			int temp = arr[low];
+			arr[low] = arr[low + end];
+			arr[low + end] = temp;
+			siftDown(arr, low, 0, end);
+		}
+	}
+
+	// sift arr[offset + i] down a heap of size n, holding the value instead of swapping
+	static void siftDown(int[] arr, int offset, int i, int n) {
+		int value = arr[offset + i];
+		int half = n >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			int right = child + 1;
+			if (right < n && arr[offset + right] > arr[offset + child])
+				child = right;
+			if (value >= arr[offset + child])
+				break;
+			arr[offset + i] = arr[offset + child];
+			i = child;
+		}
+		arr[offset + i] = value;
+	}
+
+	// optimal 9 comparator sorting network over the five sample positions
+	private static void sortFive(int[] arr, int a, int b, int c, int d, int e) {
+		sortTwo(arr, a, b);
+		sortTwo(arr, d, e);
+		sortTwo(arr, c, e);
+		sortTwo(arr, c, d);
+		sortTwo(arr, a, d);
+		sortTwo(arr, a, c);
+		sortTwo(arr, b, e);
+		sortTwo(arr, b, d);
+		sortTwo(arr, b, c);
+	}
+
+	private static void sortTwo(int[] arr, int i, int j) {
+		if (arr[i] > arr[j]) {
+			int temp = arr[i];
+			arr[i] = arr[j];
+			arr[j] = temp;
+		}
+	}
+
+}
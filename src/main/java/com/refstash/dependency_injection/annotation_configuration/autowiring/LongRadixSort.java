@@ -0,0 +1,139 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of LongSortAlgorithm: LongRadixSort
+ * LSD radix sort, one byte per pass, on keys compared as unsigned longs
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+@Component
+@Qualifier("radix")
+public class LongRadixSort implements LongSortAlgorithm {
+
+	private static final int RADIX = 256;
+	private static final int PASSES = 8;
+
+	// scratch buffers and histograms reused by every sort on the same thread
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	@Override
+	public void sort(long[] arr) {
+		int n = arr.length;
+		if (n < 2)
+			return;
+
+		// flipping the sign bit makes signed order match unsigned order
+		for (int i = 0; i < n; i++)
+			arr[i] ^= Long.MIN_VALUE;
+		sortUnsigned(arr, null, n);
+		for (int i = 0; i < n; i++)
+			arr[i] ^= Long.MIN_VALUE;
+	}
+
+	@Override
+	public int[] argsort(long[] arr) {
+		int n = arr.length;
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++)
+			keys[i] = arr[i] ^ Long.MIN_VALUE;
+		return argsortUnsigned(keys);
+	}
+
+	// sorts keys (as unsigned values) and returns where each one came from, keys is overwritten
+	static int[] argsortUnsigned(long[] keys) {
+		int n = keys.length;
+		int[] permutation = new int[n];
+		for (int i = 0; i < n; i++)
+			permutation[i] = i;
+		sortUnsigned(keys, permutation, n);
+		return permutation;
+	}
+
+	// stable LSD radix sort of keys[0..n) as unsigned values, permutation (if not null) moves along
+	static void sortUnsigned(long[] keys, int[] permutation, int n) {
+		if (n < 2)
+			return;
+
+		Scratch scratch = SCRATCH.get();
+		long[] keyBuffer = scratch.keys(n);
+		int[] permutationBuffer = permutation == null ? null : scratch.permutation(n);
+		int[] counts = scratch.counts;
+		Arrays.fill(counts, 0);
+
+		// one pass to build the histograms of all eight bytes
+		for (int i = 0; i < n; i++) {
+			long key = keys[i];
+			for (int pass = 0; pass < PASSES; pass++)
+				counts[pass * RADIX + (int) ((key >>> (8 * pass)) & 0xFF)]++;
+		}
+
+		long[] src = keys, dst = keyBuffer;
+		int[] srcPermutation = permutation, dstPermutation = permutationBuffer;
+		for (int pass = 0; pass < PASSES; pass++) {
+			int offset = pass * RADIX;
+			int shift = pass * 8;
+
+			// every key has the same byte here, the pass would not move anything
+			if (counts[offset + (int) ((src[0] >>> shift) & 0xFF)] == n)
+				continue;
+
+			// turn the histogram into starting positions
+			int sum = 0;
+			for (int b = 0; b < RADIX; b++) {
+				int count = counts[offset + b];
+				counts[offset + b] = sum;
+				sum += count;
+			}
+
+			for (int i = 0; i < n; i++) {
+				long key = src[i];
+				int position = counts[offset + (int) ((key >>> shift) & 0xFF)]++;
+				dst[position] = key;
+				if (srcPermutation != null)
+					dstPermutation[position] = srcPermutation[i];
+			}
+
+			long[] swap = src;
+			src = dst;
+			dst = swap;
+			int[] swapPermutation = srcPermutation;
+			srcPermutation = dstPermutation;
+			dstPermutation = swapPermutation;
+		}
+
+		// odd number of effective passes leaves the result in the buffers
+		if (src != keys) {
+			System.arraycopy(src, 0, keys, 0, n);
+			if (permutation != null)
+				System.arraycopy(srcPermutation, 0, permutation, 0, n);
+		}
+	}
+
+	private static class Scratch {
+		private final int[] counts = new int[PASSES * RADIX];
+		private long[] keys = new long[0];
+		private int[] permutation = new int[0];
+
+		// like RadixSort, buffers above MAX_CACHED_BUFFER are not kept
+		long[] keys(int n) {
+			if (n > RadixSort.MAX_CACHED_BUFFER)
+				return new long[n];
+			if (keys.length < n)
+				keys = new long[n];
+			return keys;
+		}
+
+		int[] permutation(int n) {
+			if (n > RadixSort.MAX_CACHED_BUFFER)
+				return new int[n];
+			if (permutation.length < n)
+				permutation = new int[n];
+			return permutation;
+		}
+	}
+
+}
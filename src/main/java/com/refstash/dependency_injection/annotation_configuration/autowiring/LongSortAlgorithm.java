@@ -0,0 +1,8 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+public interface LongSortAlgorithm {
+    void sort(long[] arr);
+
+    // permutation p such that arr[p[0]] <= arr[p[1]] <= ..., equal values keep their order; arr is not modified
+    int[] argsort(long[] arr);
+}
@@ -0,0 +1,112 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * BinarySearch over a sorted file of raw 4-byte big-endian ints (as written by ExternalSortAlgorithm),
+ * searched in place through memory mapping instead of being loaded into an int[].
+ * A single MappedByteBuffer is limited to 2 GB, so the file is mapped as consecutive segments.
+ * Lookups only use absolute reads, so any number of threads can search concurrently.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedBinarySearch implements Closeable {
+
+	// ints per mapped segment, 2^28 ints = 1 GB, also the largest shift: 2^29 ints would be a 2 GB mapping
+	static final int SEGMENT_SHIFT = 28;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer[] segments;
+	private final int segmentShift;
+	private final long segmentMask;
+	private final long size;
+
+	private volatile boolean closed;
+
+	public MappedBinarySearch(Path file) throws IOException {
+		this(file, SEGMENT_SHIFT);
+	}
+
+	MappedBinarySearch(Path file, int segmentShift) throws IOException {
+		if (segmentShift < 0 || segmentShift > SEGMENT_SHIFT)
+			throw new IllegalArgumentException("segment shift must be between 0 and " + SEGMENT_SHIFT + ": " + segmentShift);
+		this.segmentShift = segmentShift;
+		this.segmentMask = (1L << segmentShift) - 1;
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long bytes = channel.size();
+			if (bytes % 4 != 0)
+				throw new IOException("File length is not a multiple of 4 bytes: " + file);
+			this.size = bytes / 4;
+
+			long segmentInts = 1L << segmentShift;
+			int count = (int) ((size + segmentInts - 1) / segmentInts);
+			this.segments = new MappedByteBuffer[count];
+			for (int i = 0; i < count; i++) {
+				long offset = i * segmentInts * 4;
+				long length = Math.min(segmentInts * 4, bytes - offset);
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	// number of ints in the file
+	public long size() {
+		return size;
+	}
+
+	public int get(long i) {
+		if (closed)
+			throw new IllegalStateException("MappedBinarySearch is closed");
+		if (i < 0 || i >= size)
+			throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+		return read(i);
+	}
+
+	private int read(long i) {
+		return segments[(int) (i >>> segmentShift)].getInt((int) (i & segmentMask) << 2);
+	}
+
+	// position of x in the file, -1 if absent
+	public long search(int x) {
+		if (closed)
+			throw new IllegalStateException("MappedBinarySearch is closed");
+
+		long l = 0, r = size - 1;
+		while (l <= r) {
+			long m = l + (r - l) / 2;
+			int value = read(m);
+
+			// Check if x is present at mid
+			if (value == x)
+				return m;
+
+			// If x greater, ignore left half
+			if (value < x)
+				l = m + 1;
+
+			// If x is smaller, ignore right half
+			else
+				r = m - 1;
+		}
+
+		// if we reach here, then element was
+		// not present
+		return -1;
+	}
+
+	// the mappings themselves are released once they become unreachable
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		channel.close();
+	}
+
+}
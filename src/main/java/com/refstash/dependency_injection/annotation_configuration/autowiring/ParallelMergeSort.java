@@ -0,0 +1,161 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SortAlgorithm: ParallelMergeSort
+ * Fork/join merge sort, falls back to a sequential sort below the threshold.
+ * Merges are parallel too: a large merge is split at the median of its longer run and the two
+ * halves are merged by separate tasks, so the top-level merge does not run on a single thread.
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+@Component
+@Qualifier("parallel")
+public class ParallelMergeSort implements SortAlgorithm {
+
+	// sub-arrays smaller than this are sorted sequentially
+	public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+	private int threshold = DEFAULT_THRESHOLD;
+
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	public void setThreshold(int threshold) {
+		if (threshold < 2)
+			throw new IllegalArgumentException("threshold must be at least 2: " + threshold);
+		this.threshold = threshold;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void sort(int[] arr) {
+		int n = arr.length;
+		if (n < threshold || pool.getParallelism() == 1) {
+			Arrays.sort(arr);
+			return;
+		}
+
+		// single scratch buffer shared by every merge step
+		int[] buffer = new int[n];
+		pool.invoke(new MergeTask(arr, buffer, 0, n, threshold));
+	}
+
+	private static class MergeTask extends RecursiveAction {
+		private final int[] arr;
+		private final int[] buffer;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		MergeTask(int[] arr, int[] buffer, int from, int to, int threshold) {
+			this.arr = arr;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from < threshold) {
+				Arrays.sort(arr, from, to);
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+			invokeAll(new MergeTask(arr, buffer, from, mid, threshold),
+					new MergeTask(arr, buffer, mid, to, threshold));
+
+			// halves already in order, nothing to merge
+			if (arr[mid - 1] <= arr[mid])
+				return;
+
+			// both halves are copied out so that the merge can be split and written back in parallel
+			System.arraycopy(arr, from, buffer, from, to - from);
+			new ParallelMergeTask(buffer, from, mid, mid, to, arr, from, threshold).compute();
+		}
+	}
+
+	// merges src[leftFrom, leftTo) and src[rightFrom, rightTo) into dst starting at out.
+	// Large merges split at the median of the longer run, binary searched in the other run,
+	// and merge the two halves as independent tasks.
+	private static class ParallelMergeTask extends RecursiveAction {
+		private final int[] src;
+		private final int leftFrom, leftTo, rightFrom, rightTo;
+		private final int[] dst;
+		private final int out;
+		private final int threshold;
+
+		ParallelMergeTask(int[] src, int leftFrom, int leftTo, int rightFrom, int rightTo, int[] dst, int out,
+				int threshold) {
+			this.src = src;
+			this.leftFrom = leftFrom;
+			this.leftTo = leftTo;
+			this.rightFrom = rightFrom;
+			this.rightTo = rightTo;
+			this.dst = dst;
+			this.out = out;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			int leftLength = leftTo - leftFrom, rightLength = rightTo - rightFrom;
+			// a run of one element cannot be split: one sub-merge would be this merge again
+			if (leftLength + rightLength < threshold || Math.max(leftLength, rightLength) < 2) {
+				mergeInto(src, leftFrom, leftTo, rightFrom, rightTo, dst, out);
+				return;
+			}
+
+			int leftMid, rightMid;
+			if (leftLength >= rightLength) {
+				leftMid = (leftFrom + leftTo) >>> 1;
+				rightMid = lowerBound(src, rightFrom, rightTo, src[leftMid]);
+			} else {
+				rightMid = (rightFrom + rightTo) >>> 1;
+				leftMid = lowerBound(src, leftFrom, leftTo, src[rightMid]);
+			}
+			int outMid = out + (leftMid - leftFrom) + (rightMid - rightFrom);
+			invokeAll(new ParallelMergeTask(src, leftFrom, leftMid, rightFrom, rightMid, dst, out, threshold),
+					new ParallelMergeTask(src, leftMid, leftTo, rightMid, rightTo, dst, outMid, threshold));
+		}
+	}
+
+	// first index in [from, to) whose value is not less than key
+	private static int lowerBound(int[] arr, int from, int to, int key) {
+		while (from < to) {
+			int mid = (from + to) >>> 1;
+			if (arr[mid] < key)
+				from = mid + 1;
+			else
+				to = mid;
+		}
+		return from;
+	}
+
+	// merges src[i, leftTo) and src[j, rightTo) into dst starting at k
+	static void mergeInto(int[] src, int i, int leftTo, int j, int rightTo, int[] dst, int k) {
+		while (i < leftTo && j < rightTo)
+			dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+		System.arraycopy(src, i, dst, k, leftTo - i);
+		k += leftTo - i;
+		System.arraycopy(src, j, dst, k, rightTo - j);
+	}
+
+}
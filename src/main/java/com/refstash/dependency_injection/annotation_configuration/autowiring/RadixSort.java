@@ -0,0 +1,92 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SortAlgorithm: RadixSort
+ * LSD radix sort, one byte per pass
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+@Component
+@Qualifier("radix")
+public class RadixSort implements SortAlgorithm {
+
+	private static final int RADIX = 256;
+	private static final int PASSES = 4;
+
+	// scratch buffer and histograms reused by every sort on the same thread
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	// largest buffer kept per thread, 1M ints = 4 MB; longer inputs get a buffer for that call only
+	static final int MAX_CACHED_BUFFER = 1 << 20;
+
+	@Override
+	public void sort(int[] arr) {
+		int n = arr.length;
+		if (n < 2)
+			return;
+
+		Scratch scratch = SCRATCH.get();
+		int[] buffer = scratch.buffer(n);
+		int[] counts = scratch.counts;
+		Arrays.fill(counts, 0);
+
+		// one pass to build the histograms of all four bytes
+		for (int i = 0; i < n; i++) {
+			int key = arr[i] ^ Integer.MIN_VALUE; // flip sign bit so negatives come first
+			counts[key & 0xFF]++;
+			counts[RADIX + ((key >>> 8) & 0xFF)]++;
+			counts[2 * RADIX + ((key >>> 16) & 0xFF)]++;
+			counts[3 * RADIX + (key >>> 24)]++;
+		}
+
+		int[] src = arr, dst = buffer;
+		for (int pass = 0; pass < PASSES; pass++) {
+			int offset = pass * RADIX;
+			int shift = pass * 8;
+
+			// every key has the same byte here, the pass would not move anything
+			if (counts[offset + (((src[0] ^ Integer.MIN_VALUE) >>> shift) & 0xFF)] == n)
+				continue;
+
+			// turn the histogram into starting positions
+			int sum = 0;
+			for (int b = 0; b < RADIX; b++) {
+				int count = counts[offset + b];
+				counts[offset + b] = sum;
+				sum += count;
+			}
+
+			for (int i = 0; i < n; i++) {
+				int value = src[i];
+				int b = ((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+				dst[counts[offset + b]++] = value;
+			}
+
+			int[] swap = src;
+			src = dst;
+			dst = swap;
+		}
+
+		// odd number of effective passes leaves the result in the buffer
+		if (src != arr)
+			System.arraycopy(src, 0, arr, 0, n);
+	}
+
+	private static class Scratch {
+		private final int[] counts = new int[PASSES * RADIX];
+		private int[] buffer = new int[0];
+
+		int[] buffer(int n) {
+			if (n > MAX_CACHED_BUFFER)
+				return new int[n];
+			if (buffer.length < n)
+				buffer = new int[n];
+			return buffer;
+		}
+	}
+
+}
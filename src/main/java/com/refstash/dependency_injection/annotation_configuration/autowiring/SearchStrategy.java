@@ -0,0 +1,6 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+public interface SearchStrategy {
+    // position of x in sorted (ascending), -1 if absent
+    int search(int[] sorted, int x);
+}
\ No newline at end of file
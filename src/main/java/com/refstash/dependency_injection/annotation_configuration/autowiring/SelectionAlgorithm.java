@@ -0,0 +1,9 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+public interface SelectionAlgorithm {
+    // moves the k-th smallest value (0-based) to arr[k], with smaller or equal values before it and greater or equal after
+    void select(int[] arr, int k);
+
+    // arr[0..k) ends up holding the k smallest values in ascending order, the rest in no particular order
+    void partialSort(int[] arr, int k);
+}
@@ -1,5 +1,34 @@
 package com.refstash.dependency_injection.annotation_configuration.autowiring;
 
+import java.util.Arrays;
+
 public interface SortAlgorithm {
     void sort(int[] arr);
+
+    // sorts arr[from, to) and leaves the rest alone; the default sorts a copy of the range
+    default void sort(int[] arr, int from, int to) {
+        if (from == 0 && to == arr.length) {
+            sort(arr);
+            return;
+        }
+        int[] range = Arrays.copyOfRange(arr, from, to);
+        sort(range);
+        System.arraycopy(range, 0, arr, from, range.length);
+    }
+
+    // permutation p such that arr[p[0]] <= arr[p[1]] <= ..., equal values keep their order; arr is not modified
+    default int[] argsort(int[] arr) {
+        int n = arr.length;
+
+        // value in the high half, index in the low half
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++)
+            packed[i] = ((long) arr[i] << 32) | i;
+        Arrays.sort(packed);
+
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++)
+            permutation[i] = (int) packed[i];
+        return permutation;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,281 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Asynchronous front end to a SortAlgorithm for many concurrent callers.
+ * At most maxConcurrentSorts (default: the CPU count) sorts run at once: jobs run on virtual threads
+ * gated by a semaphore when the JVM has them (Java 21+), on a fixed pool of that many threads otherwise.
+ * Submissions whose content equals a job still in flight join that job instead of sorting again.
+ * Completed jobs are not cached, coalescing only spans the time a job is queued or running.
+ * Cancelling a job only stops it while it is queued: SortAlgorithm.sort does not check for interrupts,
+ * so a sort that has started runs to completion and holds its thread until then, its result discarded.
+ */
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SortService {
+
+	// Dependency of SortService
+	private final SortAlgorithm sortAlgorithm;
+
+	private final ExecutorService executor;
+	private final boolean virtualThreads;
+	// virtual threads only, the fixed pool bounds the platform thread case by itself
+	private final Semaphore permits;
+	private final int maxConcurrentSorts;
+
+	private final ConcurrentHashMap<ContentKey, Job> inFlight = new ConcurrentHashMap<>();
+
+	private volatile boolean shutdown;
+
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder sortedJobs = new LongAdder();
+	private final LongAdder cancelledJobs = new LongAdder();
+	private final LongAdder queueWaitNanos = new LongAdder();
+	private final LongAdder sortNanos = new LongAdder();
+
+	@Autowired
+	public SortService(@Qualifier("adaptive") SortAlgorithm sortAlgorithm) {
+		this(sortAlgorithm, Runtime.getRuntime().availableProcessors());
+	}
+
+	SortService(SortAlgorithm sortAlgorithm, int maxConcurrentSorts) {
+		if (maxConcurrentSorts < 1)
+			throw new IllegalArgumentException("max concurrent sorts must be at least 1: " + maxConcurrentSorts);
+		this.sortAlgorithm = sortAlgorithm;
+		this.maxConcurrentSorts = maxConcurrentSorts;
+		ExecutorService virtual = newVirtualThreadExecutor();
+		this.virtualThreads = virtual != null;
+		this.permits = virtual != null ? new Semaphore(maxConcurrentSorts) : null;
+		this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(maxConcurrentSorts, task -> {
+			Thread thread = new Thread(task, "sort-service");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// Executors.newVirtualThreadPerTaskExecutor() when available, null otherwise
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException | UnsupportedOperationException e) {
+			// before Java 21, or a preview JVM without --enable-preview
+			return null;
+		}
+	}
+
+	// a sorted copy of arr; arr is not modified and may be reused once submit returns.
+	// Cancelling the returned future abandons this caller's interest, the sort itself is
+	// cancelled once every caller waiting on it has cancelled.
+	public CompletableFuture<int[]> submit(int[] arr) {
+		if (shutdown)
+			return CompletableFuture.failedFuture(new RejectedExecutionException("SortService is shut down"));
+		submitted.increment();
+
+		ContentKey key = new ContentKey(arr.clone());
+		Job job = inFlight.compute(key, (k, existing) -> {
+			if (existing != null) {
+				existing.waiters++;
+				coalesced.increment();
+				return existing;
+			}
+			return new Job(k);
+		});
+		// only the submission that created the job starts it
+		if (job.key == key)
+			start(job);
+
+		CompletableFuture<int[]> waiter = new CompletableFuture<>();
+		job.result.whenComplete((sorted, failure) -> {
+			if (waiter.isDone())
+				return;
+			if (failure != null)
+				waiter.completeExceptionally(failure);
+			else
+				// every caller gets its own copy, so callers cannot see each other's writes
+				waiter.complete(sorted.clone());
+		});
+		waiter.whenComplete((sorted, failure) -> {
+			if (waiter.isCancelled())
+				leave(job);
+		});
+		return waiter;
+	}
+
+	private void start(Job job) {
+		try {
+			job.task = executor.submit(job);
+		} catch (RejectedExecutionException e) {
+			inFlight.remove(job.key, job);
+			job.result.completeExceptionally(e);
+		}
+	}
+
+	// drops one waiter, cancelling the job when it was the last one
+	private void leave(Job job) {
+		inFlight.compute(job.key, (k, current) -> {
+			if (current != job || --job.waiters > 0)
+				return current;
+			job.cancel();
+			return null;
+		});
+	}
+
+	public boolean usesVirtualThreads() {
+		return virtualThreads;
+	}
+
+	public int getMaxConcurrentSorts() {
+		return maxConcurrentSorts;
+	}
+
+	// jobs queued or running
+	public int getInFlight() {
+		return inFlight.size();
+	}
+
+	public long getSubmitted() {
+		return submitted.sum();
+	}
+
+	// submissions that joined a job already in flight
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	public long getSortedJobs() {
+		return sortedJobs.sum();
+	}
+
+	public long getCancelledJobs() {
+		return cancelledJobs.sum();
+	}
+
+	// total time jobs spent queued before their sort started
+	public long getQueueWaitNanos() {
+		return queueWaitNanos.sum();
+	}
+
+	// total time spent sorting
+	public long getSortNanos() {
+		return sortNanos.sum();
+	}
+
+	public void resetMetrics() {
+		submitted.reset();
+		coalesced.reset();
+		sortedJobs.reset();
+		cancelledJobs.reset();
+		queueWaitNanos.reset();
+		sortNanos.reset();
+	}
+
+	// cancels every job in flight and stops the worker threads
+	@PreDestroy
+	public void shutdown() {
+		shutdown = true;
+		for (Job job : inFlight.values())
+			if (inFlight.remove(job.key, job))
+				job.cancel();
+		executor.shutdownNow();
+	}
+
+	// one sort shared by every submission of the same content
+	private final class Job implements Runnable {
+		final ContentKey key;
+		final long createdNanos = System.nanoTime();
+		final CompletableFuture<int[]> result = new CompletableFuture<>();
+
+		// guarded by the inFlight entry of key
+		int waiters = 1;
+
+		volatile Future<?> task;
+
+		Job(ContentKey key) {
+			this.key = key;
+		}
+
+		@Override
+		public void run() {
+			if (permits != null) {
+				try {
+					permits.acquire();
+				} catch (InterruptedException e) {
+					// cancelled while waiting for a permit
+					return;
+				}
+			}
+			try {
+				long started = System.nanoTime();
+				queueWaitNanos.add(started - createdNanos);
+				if (result.isDone())
+					return;
+
+				// key.data must keep its content while other submissions may still match it
+				int[] sorted = key.data.clone();
+				sortAlgorithm.sort(sorted);
+				sortNanos.add(System.nanoTime() - started);
+
+				inFlight.remove(key, this);
+				if (result.complete(sorted))
+					sortedJobs.increment();
+			} catch (RuntimeException | Error e) {
+				inFlight.remove(key, this);
+				result.completeExceptionally(e);
+			} finally {
+				if (permits != null)
+					permits.release();
+			}
+		}
+
+		// a queued job never starts, a running sort ignores the interrupt and finishes
+		void cancel() {
+			if (result.cancel(false))
+				cancelledJobs.increment();
+			Future<?> task = this.task;
+			if (task != null)
+				task.cancel(true);
+		}
+	}
+
+	// array content as a map key, compared element by element so hash collisions never coalesce
+	private static final class ContentKey {
+		final int[] data;
+		final int hash;
+
+		ContentKey(int[] data) {
+			this.data = data;
+			this.hash = Arrays.hashCode(data);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof ContentKey))
+				return false;
+			ContentKey other = (ContentKey) o;
+			return hash == other.hash && Arrays.equals(data, other.data);
+		}
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Sorted copy of an int array, built once and searched many times.
+ * The caller's array is never mutated.
+ * Every rebuild bumps the version, so holders of an older version can detect staleness.
+ * An optional Bloom filter, rebuilt with the sorted values, rejects most misses before the search.
+ */
+
+import java.util.Arrays;
+
+public class SortedIntIndex implements SortedIntStore {
+
+	// sorted values, version, fingerprint and filter are swapped together on rebuild
+	private static final class Snapshot {
+		final int[] sorted;
+		final long version;
+		final int fingerprint;
+		// null when the index has no filter
+		final BlockedBloomFilter filter;
+
+		Snapshot(int[] sorted, long version, int fingerprint, BlockedBloomFilter filter) {
+			this.sorted = sorted;
+			this.version = version;
+			this.fingerprint = fingerprint;
+			this.filter = filter;
+		}
+	}
+
+	private final SortAlgorithm sortAlgorithm;
+
+	// 0 disables the filter
+	private final double falsePositiveRate;
+
+	private volatile Snapshot snapshot;
+
+	public SortedIntIndex(int[] source, SortAlgorithm sortAlgorithm) {
+		this(source, sortAlgorithm, 0);
+	}
+
+	// falsePositiveRate in (0, 1) puts a BlockedBloomFilter in front of every lookup, 0 means no filter
+	public SortedIntIndex(int[] source, SortAlgorithm sortAlgorithm, double falsePositiveRate) {
+		if (falsePositiveRate != 0 && !(falsePositiveRate > 0 && falsePositiveRate < 1))
+			throw new IllegalArgumentException("false positive rate must be 0 or in (0, 1): " + falsePositiveRate);
+		this.sortAlgorithm = sortAlgorithm;
+		this.falsePositiveRate = falsePositiveRate;
+		rebuild(source);
+	}
+
+	// re-sorts a fresh copy of source and returns the new version
+	public synchronized long rebuild(int[] source) {
+		int[] sorted = source.clone();
+		sortAlgorithm.sort(sorted);
+		BlockedBloomFilter filter = falsePositiveRate == 0 ? null : BlockedBloomFilter.of(sorted, falsePositiveRate);
+		long version = snapshot == null ? 1 : snapshot.version + 1;
+		snapshot = new Snapshot(sorted, version, fingerprint(source), filter);
+		return version;
+	}
+
+	public long getVersion() {
+		return snapshot.version;
+	}
+
+	// filter of the current snapshot, null if the index was built without one
+	public BlockedBloomFilter getFilter() {
+		return snapshot.filter;
+	}
+
+	@Override
+	public int size() {
+		return snapshot.sorted.length;
+	}
+
+	public int get(int i) {
+		return snapshot.sorted[i];
+	}
+
+	// backing sorted array of the current snapshot, must not be modified
+	int[] sorted() {
+		return snapshot.sorted;
+	}
+
+	public int[] toArray() {
+		return snapshot.sorted.clone();
+	}
+
+	// O(n) hash check whether source changed since the index was last built
+	public boolean isStale(int[] source) {
+		Snapshot current = snapshot;
+		return source.length != current.sorted.length || fingerprint(source) != current.fingerprint;
+	}
+
+	// position of x in sorted order, -1 if absent
+	@Override
+	public int indexOf(int x) {
+		return indexOf(snapshot, x);
+	}
+
+	@Override
+	public boolean contains(int x) {
+		return indexOf(snapshot, x) >= 0;
+	}
+
+	// same as indexOf(x), but fails if the index was rebuilt after expectedVersion
+	public int indexOf(int x, long expectedVersion) {
+		Snapshot current = snapshot;
+		if (current.version != expectedVersion)
+			throw new IllegalStateException("Stale index: expected version " + expectedVersion
+					+ " but index is at version " + current.version);
+		return indexOf(current, x);
+	}
+
+	private static int indexOf(Snapshot snapshot, int x) {
+		if (snapshot.filter != null && !snapshot.filter.mightContain(x))
+			return -1;
+		return indexOf(snapshot.sorted, x);
+	}
+
+	static int indexOf(int[] sorted, int x) {
+		int l = 0, r = sorted.length - 1;
+		while (l <= r) {
+			int m = l + (r - l) / 2;
+
+			// Check if x is present at mid
+			if (sorted[m] == x)
+				return m;
+
+			// If x greater, ignore left half
+			if (sorted[m] < x)
+				l = m + 1;
+
+			// If x is smaller, ignore right half
+			else
+				r = m - 1;
+		}
+
+		return -1;
+	}
+
+	private static int fingerprint(int[] source) {
+		return Arrays.hashCode(source);
+	}
+
+}
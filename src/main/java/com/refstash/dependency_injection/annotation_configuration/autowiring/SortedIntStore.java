@@ -0,0 +1,11 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+// read side shared by the sorted int containers BinarySearch can be backed by
+public interface SortedIntStore {
+    int size();
+
+    boolean contains(int x);
+
+    // position of x in ascending order, -1 if absent
+    int indexOf(int x);
+}
\ No newline at end of file
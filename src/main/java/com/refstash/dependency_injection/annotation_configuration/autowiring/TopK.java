@@ -0,0 +1,83 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Keeps the k smallest (or largest) values seen so far in a bounded binary heap,
+ * so input can be streamed in chunks with O(k) memory and O(n log k) time.
+ */
+
+public class TopK {
+
+	private final int k;
+	private final boolean largest;
+
+	// max-heap of keys; for largest, keys are ~value, which reverses the order of ints
+	private final int[] heap;
+	private int size;
+
+	public TopK(int k, boolean largest) {
+		if (k < 0)
+			throw new IllegalArgumentException("k must not be negative: " + k);
+		this.k = k;
+		this.largest = largest;
+		this.heap = new int[k];
+	}
+
+	public static TopK smallest(int k) {
+		return new TopK(k, false);
+	}
+
+	public static TopK largest(int k) {
+		return new TopK(k, true);
+	}
+
+	public void offer(int value) {
+		int key = largest ? ~value : value;
+		if (size < k) {
+			heap[size] = key;
+			siftUp(size++);
+		} else if (k > 0 && key < heap[0]) {
+			heap[0] = key;
+			IntroSort.siftDown(heap, 0, 0, size);
+		}
+	}
+
+	public void offer(int[] chunk) {
+		offer(chunk, 0, chunk.length);
+	}
+
+	public void offer(int[] chunk, int from, int to) {
+		for (int i = from; i < to; i++)
+			offer(chunk[i]);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// the values kept so far, smallest first for smallest(k) and largest first for largest(k)
+	public int[] toSortedArray() {
+		int[] sorted = heap.clone();
+		IntroSort.heapSort(sorted, 0, size - 1);
+		int[] result = new int[size];
+		for (int i = 0; i < size; i++)
+			result[i] = largest ? ~sorted[i] : sorted[i];
+		return result;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	private void siftUp(int i) {
+		int key = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (heap[parent] >= key)
+				break;
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = key;
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+/*
+ * Implementation of SortAlgorithm: VectorBitonicSort
+ * Blocks of up to 256 ints are sorted by a bitonic network on IntVector lanes,
+ * larger inputs merge the sorted blocks bottom-up.
+ * Without the jdk.incubator.vector module (--add-modules jdk.incubator.vector)
+ * the same network runs on scalars.
+ */
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+@Component
+@Qualifier("bitonic")
+public class VectorBitonicSort implements SortAlgorithm {
+
+	static final int BLOCK = 256;
+
+	static final boolean VECTOR_AVAILABLE = vectorAvailable();
+
+	// padded network input and merge buffer, reused by every sort on the same thread
+	private static final ThreadLocal<int[][]> SCRATCH = ThreadLocal.withInitial(() -> new int[][] { new int[BLOCK], new int[0] });
+
+	private static boolean vectorAvailable() {
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+			return false;
+		try {
+			// at least two lanes are needed for a compare-exchange inside a vector
+			return IntVectorBitonicKernel.LANES >= 2;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+
+	public static boolean isVectorized() {
+		return VECTOR_AVAILABLE;
+	}
+
+	@Override
+	public void sort(int[] arr) {
+		int n = arr.length;
+		if (n < 2)
+			return;
+
+		int[][] scratch = SCRATCH.get();
+		for (int from = 0; from < n; from += BLOCK)
+			sortBlock(arr, from, Math.min(BLOCK, n - from), scratch[0]);
+
+		if (n > BLOCK) {
+			// like RadixSort, merge buffers above MAX_CACHED_BUFFER are not kept
+			if (n > RadixSort.MAX_CACHED_BUFFER) {
+				mergeBlocks(arr, new int[n], n);
+				return;
+			}
+			if (scratch[1].length < n)
+				scratch[1] = new int[n];
+			mergeBlocks(arr, scratch[1], n);
+		}
+	}
+
+	// copies the block into a power of two buffer padded with MAX_VALUE, sorts it and copies it back
+	private static void sortBlock(int[] arr, int from, int length, int[] network) {
+		int size = Math.max(Integer.highestOneBit(length - 1) << 1, 2);
+		if (VECTOR_AVAILABLE)
+			size = Math.max(size, IntVectorBitonicKernel.LANES);
+
+		System.arraycopy(arr, from, network, 0, length);
+		Arrays.fill(network, length, size, Integer.MAX_VALUE);
+
+		if (VECTOR_AVAILABLE)
+			IntVectorBitonicKernel.sort(network, size);
+		else
+			scalarSort(network, size);
+
+		System.arraycopy(network, 0, arr, from, length);
+	}
+
+	// same network as IntVectorBitonicKernel, one compare-exchange at a time
+	static void scalarSort(int[] a, int length) {
+		for (int k = 2; k <= length; k <<= 1) {
+			for (int j = k >> 1; j > 0; j >>= 1) {
+				for (int i = 0; i < length; i++) {
+					int l = i ^ j;
+					if (l > i) {
+						int x = a[i], y = a[l];
+						boolean ascending = (i & k) == 0;
+						if ((x > y) == ascending) {
+							a[i] = y;
+							a[l] = x;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	// bottom-up merge of sorted blocks, ping-ponging between arr and buffer
+	private static void mergeBlocks(int[] arr, int[] buffer, int n) {
+		int[] src = arr, dst = buffer;
+		for (int width = BLOCK; width < n; width <<= 1) {
+			for (int from = 0; from < n; from += 2 * width) {
+				int mid = Math.min(from + width, n);
+				int to = Math.min(from + 2 * width, n);
+				merge(src, dst, from, mid, to);
+			}
+			int[] swap = src;
+			src = dst;
+			dst = swap;
+		}
+
+		if (src != arr)
+			System.arraycopy(src, 0, arr, 0, n);
+	}
+
+	// branch-free merge: the comparison only selects values and advances indexes
+	private static void merge(int[] src, int[] dst, int from, int mid, int to) {
+		int i = from, j = mid, k = from;
+		while (i < mid && j < to) {
+			int a = src[i], b = src[j];
+			int takeLeft = a <= b ? 1 : 0;
+			dst[k++] = takeLeft == 1 ? a : b;
+			i += takeLeft;
+			j += 1 - takeLeft;
+		}
+		if (i < mid)
+			System.arraycopy(src, i, dst, k, mid - i);
+		else
+			System.arraycopy(src, j, dst, k, to - j);
+	}
+
+}
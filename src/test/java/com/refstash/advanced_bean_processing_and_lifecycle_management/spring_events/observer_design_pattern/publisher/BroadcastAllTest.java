@@ -0,0 +1,244 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.FamilyMan;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Panchayat;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.QueuedBroadcaster.OverflowPolicy;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.QueuedBroadcaster.SubscriberStats;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.RingBufferBroadcaster.ProducerType;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.RingBufferBroadcaster.WaitStrategy;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.BatchSubscriber;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * broadcastAll on every Broadcaster: a BatchSubscriber gets each show's episodes in one call,
+ * in the order they were passed, and a plain Subscriber gets them one by one as before
+ */
+public class BroadcastAllTest {
+
+    private static final List<Episode> EPISODES = List.of(new FamilyMan("1"), new Panchayat("1"),
+            new FamilyMan("2"), new FamilyMan("3"), new Panchayat("2"));
+
+    // records "family-man1" per episode and "[family-man1, family-man2]" per batch
+    private static final class RecordingSubscriber implements BatchSubscriber {
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void update(Episode episode) {
+            received.add(name(episode));
+        }
+
+        @Override
+        public void update(List<Episode> episodes) {
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> episodes.remove(0));
+            List<String> names = new ArrayList<>();
+            for (Episode episode : episodes)
+                names.add(name(episode));
+            received.add(names.toString());
+        }
+    }
+
+    private static final class PlainSubscriber implements Subscriber {
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void update(Episode episode) {
+            received.add(name(episode));
+        }
+    }
+
+    private static String name(Episode episode) {
+        return episode.getShowName() + episode.getEpisodeNo();
+    }
+
+    private static final List<String> BATCHES = List.of("[family-man1, family-man2, family-man3]",
+            "[panchayat1, panchayat2]");
+    private static final List<String> ONE_BY_ONE = List.of("family-man1", "family-man2", "family-man3",
+            "panchayat1", "panchayat2");
+
+    @Test
+    public void amazonPrime() {
+        AmazonPrime prime = new AmazonPrime();
+        RecordingSubscriber batch = new RecordingSubscriber();
+        PlainSubscriber plain = new PlainSubscriber();
+        subscribe(prime, batch, plain);
+        prime.broadcastAll(EPISODES);
+        Assertions.assertEquals(BATCHES, batch.received);
+        Assertions.assertEquals(ONE_BY_ONE, plain.received);
+    }
+
+    @Test
+    public void concurrentAmazonPrime() {
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        RecordingSubscriber batch = new RecordingSubscriber();
+        PlainSubscriber plain = new PlainSubscriber();
+        subscribe(prime, batch, plain);
+        prime.broadcastAll(EPISODES);
+        prime.broadcastAll(List.of());
+        Assertions.assertEquals(BATCHES, batch.received);
+        Assertions.assertEquals(ONE_BY_ONE, plain.received);
+    }
+
+    @Test
+    public void parallelBroadcaster() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+            RecordingSubscriber batch = new RecordingSubscriber();
+            PlainSubscriber plain = new PlainSubscriber();
+            subscribe(broadcaster, batch, plain);
+
+            List<ParallelBroadcaster.Delivery> deliveries = broadcaster.broadcastAllAsync(EPISODES);
+            Assertions.assertEquals(2, deliveries.size());
+            Assertions.assertEquals("family-man", deliveries.get(0).getEpisode().getShowName());
+            Assertions.assertEquals(3, deliveries.get(0).getEpisodes().size());
+            Assertions.assertEquals(2, deliveries.get(1).getEpisodes().size());
+            for (ParallelBroadcaster.Delivery delivery : deliveries)
+                Assertions.assertTrue(delivery.join().getFailures().isEmpty());
+
+            // the two shows are delivered concurrently, only the order within a show is defined
+            List<String> batches = new ArrayList<>(batch.received);
+            Collections.sort(batches);
+            Assertions.assertEquals(BATCHES, batches);
+            List<String> plainReceived = new ArrayList<>(plain.received);
+            Assertions.assertEquals(ONE_BY_ONE.subList(0, 3), filter(plainReceived, "family-man"));
+            Assertions.assertEquals(ONE_BY_ONE.subList(3, 5), filter(plainReceived, "panchayat"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void parallelBroadcasterAggregatesFailures() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+            BatchSubscriber failingBatch = new BatchSubscriber() {
+                @Override
+                public void update(Episode episode) {
+                }
+
+                @Override
+                public void update(List<Episode> episodes) {
+                    throw new AssertionError("batch");
+                }
+            };
+            broadcaster.addSubscriber("family-man", failingBatch);
+            broadcaster.addSubscriber("panchayat", failingBatch);
+            broadcaster.addSubscriber("panchayat", episode -> {
+                throw new IllegalStateException("plain");
+            });
+
+            BroadcastException exception = Assertions.assertThrows(BroadcastException.class,
+                    () -> broadcaster.broadcastAll(EPISODES));
+            // one failure per batch call, one per episode for the plain subscriber
+            Assertions.assertEquals(4, exception.getFailures().size());
+            Assertions.assertEquals("4 failed updates while broadcasting 5 episodes of 2 shows", exception.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void queuedBroadcasterQueuesOneEntryPerShow() {
+        List<Runnable> tasks = new ArrayList<>();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(8, OverflowPolicy.DROP_NEWEST, tasks::add);
+        RecordingSubscriber batch = new RecordingSubscriber();
+        PlainSubscriber plain = new PlainSubscriber();
+        subscribe(broadcaster, batch, plain);
+
+        broadcaster.broadcastAll(EPISODES);
+        Assertions.assertEquals(2, broadcaster.getStats(batch).getDepth());
+        Assertions.assertEquals(2, broadcaster.getStats(plain).getDepth());
+        for (Runnable task : new ArrayList<>(tasks))
+            task.run();
+
+        Assertions.assertEquals(BATCHES, batch.received);
+        Assertions.assertEquals(ONE_BY_ONE, plain.received);
+        Assertions.assertEquals(5, broadcaster.getStats(batch).getDelivered());
+        Assertions.assertEquals(5, broadcaster.getStats(plain).getDelivered());
+    }
+
+    @Test
+    public void queuedBroadcasterCoalescesABatchToItsLastEpisode() {
+        List<Runnable> tasks = new ArrayList<>();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(8, OverflowPolicy.COALESCE_BY_SHOW, tasks::add);
+        RecordingSubscriber batch = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", batch);
+
+        broadcaster.broadcastAll(EPISODES);
+        SubscriberStats stats = broadcaster.getStats(batch);
+        Assertions.assertEquals(1, stats.getDepth());
+        Assertions.assertEquals(2, stats.getDropped());
+        for (Runnable task : new ArrayList<>(tasks))
+            task.run();
+        Assertions.assertEquals(List.of("family-man3"), batch.received);
+    }
+
+    @Test
+    public void queuedBroadcasterRejectsBroadcastAllOnceClosed() throws Exception {
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster();
+        broadcaster.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> broadcaster.broadcastAll(EPISODES));
+    }
+
+    @Test
+    public void ringBufferBroadcasterDeliversEpisodeByEpisode() throws Exception {
+        RingBufferBroadcaster broadcaster = new RingBufferBroadcaster(new ConcurrentAmazonPrime(), 4,
+                ProducerType.SINGLE, WaitStrategy.YIELD, 1);
+        RecordingSubscriber batch = new RecordingSubscriber();
+        PlainSubscriber plain = new PlainSubscriber();
+        subscribe(broadcaster, batch, plain);
+        broadcaster.broadcastAll(EPISODES);
+        broadcaster.close();
+
+        List<String> inOrder = List.of("family-man1", "panchayat1", "family-man2", "family-man3", "panchayat2");
+        Assertions.assertEquals(inOrder, batch.received);
+        Assertions.assertEquals(inOrder, plain.received);
+    }
+
+    @Test
+    public void defaultBroadcastAllCallsBroadcast() {
+        List<String> broadcasts = new ArrayList<>();
+        Broadcaster broadcaster = new Broadcaster() {
+            @Override
+            public void addSubscriber(String show, Subscriber subscriber) {
+            }
+
+            @Override
+            public void removeSubscriber(String show, Subscriber subscriber) {
+            }
+
+            @Override
+            public void broadcast(Episode episode) {
+                broadcasts.add(name(episode));
+            }
+        };
+        broadcaster.broadcastAll(EPISODES);
+        Assertions.assertEquals(List.of("family-man1", "panchayat1", "family-man2", "family-man3", "panchayat2"),
+                broadcasts);
+    }
+
+    private static void subscribe(Broadcaster broadcaster, Subscriber... subscribers) {
+        for (Subscriber subscriber : subscribers) {
+            broadcaster.addSubscriber("family-man", subscriber);
+            broadcaster.addSubscriber("panchayat", subscriber);
+        }
+    }
+
+    private static List<String> filter(List<String> names, String show) {
+        List<String> ofShow = new ArrayList<>();
+        for (String name : names)
+            if (name.startsWith(show))
+                ofShow.add(name);
+        return ofShow;
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.FamilyMan;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Panchayat;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * ConcurrentAmazonPrime behaves like AmazonPrime for a single thread and never loses
+ * a subscription when many threads subscribe, unsubscribe and broadcast at once
+ */
+public class ConcurrentAmazonPrimeTest {
+
+    @Test
+    public void behavesLikeAmazonPrime() {
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        Assertions.assertTrue(prime.getShows().containsAll(List.of("family-man", "panchayat")));
+
+        List<String> received = new ArrayList<>();
+        Subscriber first = episode -> received.add("first " + episode.getEpisodeNo());
+        Subscriber second = episode -> received.add("second " + episode.getEpisodeNo());
+        prime.addSubscriber("family-man", first);
+        prime.addSubscriber("family-man", second);
+        prime.addSubscriber("family-man", first);
+        prime.broadcast(new FamilyMan("1"));
+        prime.broadcast(new Panchayat("1"));
+        Assertions.assertEquals(List.of("first 1", "second 1", "first 1"), received);
+
+        // like List.remove, only the first registration goes
+        prime.removeSubscriber("family-man", first);
+        Assertions.assertEquals(List.of(second, first), prime.getSubscribers("family-man"));
+        Assertions.assertFalse(prime.remove("family-man", episode -> { }));
+        Assertions.assertFalse(prime.remove("unknown", first));
+        Assertions.assertTrue(prime.remove("family-man", first));
+        Assertions.assertEquals(List.of(second), prime.getSubscribers("family-man"));
+    }
+
+    @Test
+    public void showsAreRegisteredOnDemand() {
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        Assertions.assertTrue(prime.addShow("mirzapur"));
+        Assertions.assertFalse(prime.addShow("mirzapur"));
+        Assertions.assertFalse(prime.addShow("family-man"));
+
+        prime.addSubscriber("paatal-lok", episode -> { });
+        Assertions.assertTrue(prime.getShows().contains("paatal-lok"));
+        Assertions.assertTrue(prime.getSubscribers("unknown").isEmpty());
+        // nobody to reach, nothing to fail
+        prime.broadcast(episode("unknown", 1));
+    }
+
+    @Test
+    public void getSubscribersIsASnapshot() {
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        Subscriber subscriber = episode -> { };
+        prime.addSubscriber("panchayat", subscriber);
+        List<Subscriber> snapshot = prime.getSubscribers("panchayat");
+
+        prime.addSubscriber("panchayat", episode -> { });
+        prime.removeSubscriber("panchayat", subscriber);
+        Assertions.assertEquals(List.of(subscriber), snapshot);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.add(subscriber));
+    }
+
+    @Test
+    public void subscriberUpdatingItsShowDuringBroadcast() {
+        // the running broadcast keeps iterating its snapshot
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        List<String> received = new ArrayList<>();
+        Subscriber late = episode -> received.add("late");
+        prime.addSubscriber("family-man", new Subscriber() {
+            @Override
+            public void update(Episode episode) {
+                received.add("self-removing");
+                prime.removeSubscriber("family-man", this);
+                prime.addSubscriber("family-man", late);
+            }
+        });
+        prime.addSubscriber("family-man", episode -> received.add("other"));
+
+        prime.broadcast(new FamilyMan("1"));
+        Assertions.assertEquals(List.of("self-removing", "other"), received);
+        prime.broadcast(new FamilyMan("2"));
+        Assertions.assertEquals(List.of("self-removing", "other", "other", "late"), received);
+    }
+
+    @Test
+    public void concurrentSubscriptionsAreNeverLost() throws Exception {
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        int threads = 8, iterations = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong delivered = new AtomicLong();
+
+        // keeps broadcasting while the subscriber lists change under it
+        Future<?> broadcaster = executor.submit(() -> {
+            start.await();
+            for (int i = 0; !done.get(); i++)
+                prime.broadcast(episode("show" + i % 3, i));
+            return null;
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++)
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    // capturing, so every subscriber is a distinct instance
+                    Subscriber subscriber = episode -> delivered.incrementAndGet();
+                    prime.addSubscriber("show" + i % 3, subscriber);
+                    if (i % 2 == 0)
+                        prime.removeSubscriber("show" + i % 3, subscriber);
+                }
+                return null;
+            }));
+
+        start.countDown();
+        for (Future<?> writer : writers)
+            writer.get();
+        done.set(true);
+        broadcaster.get();
+        executor.shutdown();
+
+        int total = 0;
+        for (int show = 0; show < 3; show++)
+            total += prime.getSubscribers("show" + show).size();
+        Assertions.assertEquals(threads * iterations / 2, total);
+    }
+
+    @Test
+    public void addSubscribersRegistersALargeBatch() {
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        int n = 200_000;
+        AtomicIntegerArray calls = new AtomicIntegerArray(n + 1);
+        Subscriber first = episode -> calls.incrementAndGet(n);
+        prime.addSubscriber("family-man", first);
+
+        List<Subscriber> batch = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            batch.add(episode -> calls.incrementAndGet(index));
+        }
+        prime.addSubscribers("family-man", batch);
+        prime.addSubscribers("family-man", List.of());
+        prime.addSubscribers("mirzapur", List.of());
+        Assertions.assertTrue(prime.getShows().contains("mirzapur"), "the show is registered even for no subscribers");
+
+        // appended after the existing subscriber, in iteration order
+        List<Subscriber> subscribers = prime.getSubscribers("family-man");
+        Assertions.assertEquals(n + 1, subscribers.size());
+        Assertions.assertSame(first, subscribers.get(0));
+        Assertions.assertEquals(batch, subscribers.subList(1, n + 1));
+
+        prime.broadcast(new FamilyMan("1"));
+        for (int i = 0; i <= n; i++)
+            Assertions.assertEquals(1, calls.get(i), "subscriber " + i);
+    }
+
+    @Test
+    public void concurrentBroadcastSeesAWholeBatchOrNone() throws Exception {
+        ConcurrentAmazonPrime prime = new ConcurrentAmazonPrime();
+        int batches = 200, batchSize = 50;
+        AtomicLong delivered = new AtomicLong();
+        List<Subscriber> batch = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++)
+            batch.add(episode -> delivered.incrementAndGet());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean done = new AtomicBoolean();
+        Future<?> broadcaster = executor.submit(() -> {
+            for (int i = 0; !done.get(); i++) {
+                long before = delivered.get();
+                prime.broadcast(new FamilyMan(String.valueOf(i)));
+                Assertions.assertEquals(0, (delivered.get() - before) % batchSize, "part of a batch was delivered");
+            }
+            return null;
+        });
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < batches; i++)
+                prime.addSubscribers("family-man", batch);
+            return null;
+        });
+        writer.get();
+        done.set(true);
+        broadcaster.get();
+        executor.shutdown();
+        Assertions.assertEquals(batches * batchSize, prime.getSubscribers("family-man").size());
+    }
+
+    private static Episode episode(String show, int episodeNo) {
+        return new Episode() {
+            @Override
+            public String getShowName() {
+                return show;
+            }
+
+            @Override
+            public String getEpisodeNo() {
+                return String.valueOf(episodeNo);
+            }
+        };
+    }
+
+}
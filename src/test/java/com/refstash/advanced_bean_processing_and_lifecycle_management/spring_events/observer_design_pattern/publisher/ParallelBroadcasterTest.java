@@ -0,0 +1,212 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.FamilyMan;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Panchayat;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.BatchSubscriber;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ * ParallelBroadcaster: every subscriber of every shard gets the episode exactly once,
+ * failing subscribers, Errors included, are collected without stopping the others,
+ * and a VirtualMachineError is rethrown instead of collected
+ */
+public class ParallelBroadcasterTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void everySubscriberOfEveryShardIsReachedOnce() {
+        ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+        for (int shardSize : new int[] { 1, 7, 64, ParallelBroadcaster.DEFAULT_SHARD_SIZE }) {
+            broadcaster.setShardSize(shardSize);
+            for (int n : new int[] { 0, 1, 63, 64, 65, 1000 }) {
+                String show = "show-" + shardSize + "-" + n;
+                AtomicIntegerArray calls = new AtomicIntegerArray(n);
+                for (int i = 0; i < n; i++) {
+                    int index = i;
+                    broadcaster.addSubscriber(show, episode -> calls.incrementAndGet(index));
+                }
+
+                ParallelBroadcaster.Delivery delivery = broadcaster.broadcastAsync(episode(show, 1)).join();
+                String description = "shardSize=" + shardSize + " n=" + n;
+                Assertions.assertTrue(delivery.isDone(), description);
+                Assertions.assertEquals(n, delivery.getSubscriberCount(), description);
+                Assertions.assertEquals((n + shardSize - 1) / shardSize, delivery.getShardCount(), description);
+                Assertions.assertEquals(delivery.getShardCount(), delivery.getShardLatencyNanos().length, description);
+                Assertions.assertTrue(delivery.getFailures().isEmpty(), description);
+                for (int i = 0; i < n; i++)
+                    Assertions.assertEquals(1, calls.get(i), description + " subscriber " + i);
+            }
+        }
+    }
+
+    @Test
+    public void failuresAreCollectedAndTheRestStillDelivered() {
+        ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+        broadcaster.setShardSize(3);
+        int n = 30;
+        AtomicIntegerArray calls = new AtomicIntegerArray(n);
+        IllegalStateException shared = new IllegalStateException("shared");
+        Set<Subscriber> failing = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            Subscriber subscriber;
+            if (i % 10 == 0)
+                subscriber = episode -> {
+                    calls.incrementAndGet(index);
+                    throw new AssertionError("error " + index);
+                };
+            else if (i % 5 == 0)
+                // rethrows one instance, as cached exceptions do
+                subscriber = episode -> {
+                    calls.incrementAndGet(index);
+                    throw shared;
+                };
+            else
+                subscriber = episode -> calls.incrementAndGet(index);
+            if (i % 5 == 0)
+                failing.add(subscriber);
+            broadcaster.addSubscriber("family-man", subscriber);
+        }
+
+        BroadcastException exception = Assertions.assertThrows(BroadcastException.class,
+                () -> broadcaster.broadcast(new FamilyMan("7")));
+        for (int i = 0; i < n; i++)
+            Assertions.assertEquals(1, calls.get(i), "subscriber " + i);
+
+        List<ParallelBroadcaster.Failure> failures = exception.getFailures();
+        Assertions.assertEquals(6, failures.size());
+        Assertions.assertEquals("6 of 30 subscribers failed to receive episode 7 of family-man", exception.getMessage());
+        Set<Subscriber> failed = new HashSet<>();
+        for (ParallelBroadcaster.Failure failure : failures)
+            failed.add(failure.getSubscriber());
+        Assertions.assertEquals(failing, failed);
+
+        // the cause is the first failure, every other distinct exception is suppressed exactly once
+        Assertions.assertSame(failures.get(0).getCause(), exception.getCause());
+        List<Throwable> suppressed = Arrays.asList(exception.getSuppressed());
+        // four distinct instances, three Errors and the shared exception, one of them is the cause
+        Assertions.assertEquals(3, suppressed.size());
+        Assertions.assertFalse(suppressed.contains(exception.getCause()));
+        Assertions.assertEquals(0, shared.getSuppressed().length, "subscriber exceptions are not modified");
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> failures.remove(0));
+    }
+
+    @Test
+    public void virtualMachineErrorsAreRethrownNotCollected() {
+        ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+        broadcaster.setShardSize(2);
+        int n = 6;
+        AtomicIntegerArray calls = new AtomicIntegerArray(n);
+        StackOverflowError overflow = new StackOverflowError("subscriber 2");
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            broadcaster.addSubscriber("family-man", episode -> {
+                calls.incrementAndGet(index);
+                if (index == 2)
+                    throw overflow;
+            });
+        }
+
+        ParallelBroadcaster.Delivery delivery = broadcaster.broadcastAsync(new FamilyMan("1"));
+        Assertions.assertSame(overflow, Assertions.assertThrows(StackOverflowError.class, delivery::join));
+        Assertions.assertTrue(delivery.getCompletion().isCompletedExceptionally());
+        Assertions.assertTrue(delivery.getFailures().isEmpty(), "not recorded as a subscriber failure");
+        // the error ends its own shard only, the other shards are delivered before join returns
+        Assertions.assertEquals(0, calls.get(3));
+        for (int i : new int[] { 0, 1, 2, 4, 5 })
+            Assertions.assertEquals(1, calls.get(i), "subscriber " + i);
+
+        Assertions.assertSame(overflow, Assertions.assertThrows(StackOverflowError.class,
+                () -> broadcaster.broadcast(new FamilyMan("2"))));
+        OutOfMemoryError outOfMemory = new OutOfMemoryError("batch");
+        broadcaster.addSubscriber("panchayat", new BatchSubscriber() {
+            @Override
+            public void update(Episode episode) {
+            }
+
+            @Override
+            public void update(List<Episode> episodes) {
+                throw outOfMemory;
+            }
+        });
+        Assertions.assertSame(outOfMemory, Assertions.assertThrows(OutOfMemoryError.class,
+                () -> broadcaster.broadcastAll(List.of(new Panchayat("1"), new Panchayat("2")))));
+    }
+
+    @Test
+    public void broadcastAsyncReturnsBeforeDelivery() throws Exception {
+        ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+        CountDownLatch gate = new CountDownLatch(1);
+        broadcaster.addSubscriber("family-man", episode -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        ParallelBroadcaster.Delivery delivery = broadcaster.broadcastAsync(new FamilyMan("1"));
+        Assertions.assertFalse(delivery.isDone());
+        Assertions.assertEquals("1", delivery.getEpisode().getEpisodeNo());
+        gate.countDown();
+        Assertions.assertSame(delivery, delivery.getCompletion().get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(delivery.getElapsedNanos() > 0);
+        Assertions.assertTrue(delivery.getFailures().isEmpty());
+    }
+
+    @Test
+    public void subscribersAddedAfterStartAreNotReached() {
+        ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+        AtomicIntegerArray calls = new AtomicIntegerArray(2);
+        broadcaster.addSubscriber("family-man", episode -> {
+            calls.incrementAndGet(0);
+            broadcaster.addSubscriber("family-man", late -> calls.incrementAndGet(1));
+        });
+        broadcaster.broadcast(new FamilyMan("1"));
+        Assertions.assertEquals(1, calls.get(0));
+        Assertions.assertEquals(0, calls.get(1));
+        Assertions.assertEquals(2, broadcaster.getRegistry().getSubscribers("family-man").size());
+    }
+
+    @Test
+    public void rejectsInvalidShardSize() {
+        ParallelBroadcaster broadcaster = new ParallelBroadcaster(new ConcurrentAmazonPrime(), pool);
+        Assertions.assertEquals(ParallelBroadcaster.DEFAULT_SHARD_SIZE, broadcaster.getShardSize());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> broadcaster.setShardSize(0));
+        Assertions.assertEquals(ParallelBroadcaster.DEFAULT_SHARD_SIZE, broadcaster.getShardSize());
+    }
+
+    private static Episode episode(String show, int episodeNo) {
+        return new Episode() {
+            @Override
+            public String getShowName() {
+                return show;
+            }
+
+            @Override
+            public String getEpisodeNo() {
+                return String.valueOf(episodeNo);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,331 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.FamilyMan;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Panchayat;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.QueuedBroadcaster.OverflowPolicy;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.QueuedBroadcaster.SubscriberStats;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * QueuedBroadcaster: overflow policies, stats, failures and close. Most tests drain the mailboxes
+ * by hand through ManualExecutor, so what is queued and what is delivered does not depend on
+ * thread scheduling.
+ */
+public class QueuedBroadcasterTest {
+
+    // collects drain tasks until the test runs them
+    private static final class ManualExecutor implements Executor {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = next()) != null)
+                task.run();
+        }
+
+        private synchronized Runnable next() {
+            return tasks.poll();
+        }
+    }
+
+    private static class RecordingSubscriber implements Subscriber {
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void update(Episode episode) {
+            received.add(episode.getShowName() + episode.getEpisodeNo());
+        }
+    }
+
+    @Test
+    public void dropNewestKeepsTheFirstEpisodes() {
+        RecordingSubscriber subscriber = overflow(OverflowPolicy.DROP_NEWEST);
+        Assertions.assertEquals(List.of("family-man1", "family-man2", "family-man3"), subscriber.received);
+    }
+
+    @Test
+    public void dropOldestKeepsTheLatestEpisodes() {
+        RecordingSubscriber subscriber = overflow(OverflowPolicy.DROP_OLDEST);
+        Assertions.assertEquals(List.of("family-man3", "family-man4", "family-man5"), subscriber.received);
+    }
+
+    // five episodes into a mailbox of three
+    private static RecordingSubscriber overflow(OverflowPolicy policy) {
+        ManualExecutor executor = new ManualExecutor();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(3, policy, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", subscriber);
+        for (int i = 1; i <= 5; i++)
+            broadcaster.broadcast(new FamilyMan(String.valueOf(i)));
+
+        SubscriberStats stats = broadcaster.getStats(subscriber);
+        Assertions.assertEquals(policy, stats.getPolicy());
+        Assertions.assertEquals(3, stats.getCapacity());
+        Assertions.assertEquals(3, stats.getDepth());
+        Assertions.assertEquals(2, stats.getDropped());
+        Assertions.assertTrue(stats.getLagNanos() > 0);
+        Assertions.assertTrue(subscriber.received.isEmpty());
+
+        executor.runAll();
+        stats = broadcaster.getStats(subscriber);
+        Assertions.assertEquals(0, stats.getDepth());
+        Assertions.assertEquals(3, stats.getDelivered());
+        Assertions.assertEquals(0, stats.getLagNanos());
+        return subscriber;
+    }
+
+    @Test
+    public void coalesceKeepsTheLatestEpisodeOfEachShow() {
+        ManualExecutor executor = new ManualExecutor();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(2, OverflowPolicy.COALESCE_BY_SHOW, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", subscriber);
+        broadcaster.addSubscriber("panchayat", subscriber);
+
+        broadcaster.broadcast(new FamilyMan("1"));
+        broadcaster.broadcast(new Panchayat("1"));
+        broadcaster.broadcast(new FamilyMan("2"));
+        broadcaster.broadcast(new FamilyMan("3"));
+        SubscriberStats stats = broadcaster.getStats(subscriber);
+        Assertions.assertEquals(2, stats.getDepth());
+        Assertions.assertEquals(2, stats.getDropped());
+
+        // the replaced entry keeps its place ahead of panchayat
+        executor.runAll();
+        Assertions.assertEquals(List.of("family-man3", "panchayat1"), subscriber.received);
+        // once delivered, the show is queued afresh
+        broadcaster.broadcast(new FamilyMan("4"));
+        executor.runAll();
+        Assertions.assertEquals(List.of("family-man3", "panchayat1", "family-man4"), subscriber.received);
+    }
+
+    @Test
+    public void blockWaitsForRoomAndCloseReleasesIt() throws Exception {
+        ManualExecutor executor = new ManualExecutor();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(1, OverflowPolicy.BLOCK, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", subscriber);
+        broadcaster.broadcast(new FamilyMan("1"));
+
+        Thread blocked = new Thread(() -> broadcaster.broadcast(new FamilyMan("2")));
+        blocked.start();
+        awaitWaiting(blocked);
+        // draining makes room, the waiting broadcast goes through
+        executor.runAll();
+        blocked.join(10_000);
+        Assertions.assertFalse(blocked.isAlive());
+        executor.runAll();
+        Assertions.assertEquals(List.of("family-man1", "family-man2"), subscriber.received);
+        Assertions.assertEquals(0, broadcaster.getStats(subscriber).getDropped());
+
+        // subscribed after the full mailbox, so it is reached only if the broadcast goes on
+        RecordingSubscriber later = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", later, 10, OverflowPolicy.BLOCK);
+        broadcaster.broadcast(new FamilyMan("3"));
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread blockedAtClose = new Thread(() -> {
+            try {
+                broadcaster.broadcast(new FamilyMan("4"));
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        });
+        blockedAtClose.start();
+        awaitWaiting(blockedAtClose);
+        broadcaster.close();
+        blockedAtClose.join(10_000);
+        Assertions.assertFalse(blockedAtClose.isAlive());
+        // the woken broadcast drops the episode for the full mailbox and goes on with the next subscriber
+        Assertions.assertNull(thrown.get());
+        Assertions.assertEquals(1, broadcaster.getStats(subscriber).getDropped());
+        Assertions.assertEquals(0, broadcaster.getStats(later).getDropped());
+        // what was queued before close is still delivered
+        executor.runAll();
+        Assertions.assertEquals(List.of("family-man1", "family-man2", "family-man3"), subscriber.received);
+        Assertions.assertEquals(List.of("family-man3", "family-man4"), later.received);
+        Assertions.assertThrows(IllegalStateException.class, () -> broadcaster.broadcast(new FamilyMan("5")));
+    }
+
+    @Test
+    public void slowSubscriberDoesNotHoldBackTheOthers() throws Exception {
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(4, OverflowPolicy.DROP_NEWEST);
+        CountDownLatch gate = new CountDownLatch(1);
+        Subscriber slow = episode -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        RecordingSubscriber fast = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", slow);
+        broadcaster.addSubscriber("family-man", fast, 1000, OverflowPolicy.BLOCK);
+
+        // returns although slow has not taken a single episode
+        for (int i = 0; i < 100; i++)
+            broadcaster.broadcast(new FamilyMan(String.valueOf(i)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (fast.received.size() < 100 && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        Assertions.assertEquals(100, fast.received.size());
+        Assertions.assertEquals("family-man99", fast.received.get(99));
+
+        gate.countDown();
+        broadcaster.close();
+        SubscriberStats stats = broadcaster.getStats(slow);
+        // at most the mailbox and the one episode held by the drain task got through
+        Assertions.assertTrue(stats.getDelivered() <= 5, stats.toString());
+        Assertions.assertEquals(100, stats.getDelivered() + stats.getDropped(), stats.toString());
+        Assertions.assertEquals(0, broadcaster.getStats(fast).getDropped());
+    }
+
+    @Test
+    public void failuresAreCountedAndDeliveryGoesOn() {
+        ManualExecutor executor = new ManualExecutor();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(10, OverflowPolicy.DROP_NEWEST, executor);
+        RecordingSubscriber failing = new RecordingSubscriber() {
+            @Override
+            public void update(Episode episode) {
+                super.update(episode);
+                if (received.size() % 2 == 1)
+                    throw new AssertionError("odd call");
+            }
+        };
+        broadcaster.addSubscriber("panchayat", failing);
+        for (int i = 1; i <= 6; i++)
+            broadcaster.broadcast(new Panchayat(String.valueOf(i)));
+        executor.runAll();
+
+        SubscriberStats stats = broadcaster.getStats(failing);
+        Assertions.assertEquals(6, failing.received.size());
+        Assertions.assertEquals(3, stats.getFailed());
+        Assertions.assertEquals(3, stats.getDelivered());
+    }
+
+    @Test
+    public void virtualMachineErrorsReachTheExecutor() {
+        ManualExecutor executor = new ManualExecutor();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(10, OverflowPolicy.DROP_NEWEST, executor);
+        StackOverflowError overflow = new StackOverflowError("episode 2");
+        RecordingSubscriber overflowing = new RecordingSubscriber() {
+            @Override
+            public void update(Episode episode) {
+                super.update(episode);
+                if (episode.getEpisodeNo().equals("2"))
+                    throw overflow;
+            }
+        };
+        broadcaster.addSubscriber("panchayat", overflowing);
+        for (int i = 1; i <= 4; i++)
+            broadcaster.broadcast(new Panchayat(String.valueOf(i)));
+
+        Assertions.assertSame(overflow, Assertions.assertThrows(StackOverflowError.class, executor::runAll));
+        // the ended drain scheduled a new one for the rest of the mailbox
+        Assertions.assertEquals(1, executor.tasks.size());
+        executor.runAll();
+        broadcaster.broadcast(new Panchayat("5"));
+        executor.runAll();
+
+        SubscriberStats stats = broadcaster.getStats(overflowing);
+        Assertions.assertEquals(List.of("panchayat1", "panchayat2", "panchayat3", "panchayat4", "panchayat5"),
+                overflowing.received);
+        Assertions.assertEquals(0, stats.getFailed(), "not counted as a failure");
+        Assertions.assertEquals(4, stats.getDelivered());
+        Assertions.assertEquals(0, stats.getDepth());
+    }
+
+    @Test
+    public void statsLiveAsLongAsASubscription() {
+        ManualExecutor executor = new ManualExecutor();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(8, OverflowPolicy.DROP_OLDEST, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        Assertions.assertNull(broadcaster.getStats(subscriber));
+
+        // the first subscription decides capacity and policy
+        broadcaster.addSubscriber("family-man", subscriber, 2, OverflowPolicy.DROP_NEWEST);
+        broadcaster.addSubscriber("panchayat", subscriber);
+        Assertions.assertEquals(2, broadcaster.getStats(subscriber).getCapacity());
+        Assertions.assertEquals(OverflowPolicy.DROP_NEWEST, broadcaster.getStats(subscriber).getPolicy());
+        Assertions.assertEquals(1, broadcaster.getStats().size());
+
+        broadcaster.broadcast(new FamilyMan("1"));
+        broadcaster.removeSubscriber("family-man", subscriber);
+        broadcaster.broadcast(new FamilyMan("2"));
+        Assertions.assertNotNull(broadcaster.getStats(subscriber));
+        broadcaster.removeSubscriber("panchayat", subscriber);
+        Assertions.assertNull(broadcaster.getStats(subscriber));
+        Assertions.assertTrue(broadcaster.getStats().isEmpty());
+        // removing twice is harmless, and the queued episode is still delivered
+        broadcaster.removeSubscriber("panchayat", subscriber);
+        executor.runAll();
+        Assertions.assertEquals(List.of("family-man1"), subscriber.received);
+    }
+
+    @Test
+    public void closeDeliversWhatIsQueuedThenRejects() throws Exception {
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", subscriber);
+        for (int i = 0; i < 500; i++)
+            broadcaster.broadcast(new FamilyMan(String.valueOf(i)));
+        broadcaster.close();
+
+        Assertions.assertEquals(500, subscriber.received.size());
+        Assertions.assertEquals(500, broadcaster.getStats(subscriber).getDelivered());
+        Assertions.assertThrows(IllegalStateException.class, () -> broadcaster.broadcast(new FamilyMan("500")));
+    }
+
+    @Test
+    public void closeWithACallersExecutorDoesNotDrain() throws Exception {
+        ManualExecutor executor = new ManualExecutor();
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(10, OverflowPolicy.DROP_NEWEST, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", subscriber);
+        for (int i = 1; i <= 3; i++)
+            broadcaster.broadcast(new FamilyMan(String.valueOf(i)));
+
+        // close returns without waiting, the episodes stay queued until the executor runs the drain
+        broadcaster.close();
+        Assertions.assertEquals(3, broadcaster.getStats(subscriber).getDepth());
+        Assertions.assertTrue(subscriber.received.isEmpty());
+        Assertions.assertEquals(1, executor.tasks.size());
+        executor.runAll();
+        Assertions.assertEquals(0, broadcaster.getStats(subscriber).getDepth());
+        Assertions.assertEquals(List.of("family-man1", "family-man2", "family-man3"), subscriber.received);
+    }
+
+    @Test
+    public void rejectsInvalidCapacity() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new QueuedBroadcaster(0, OverflowPolicy.DROP_OLDEST));
+        QueuedBroadcaster broadcaster = new QueuedBroadcaster(1, OverflowPolicy.DROP_OLDEST, new ManualExecutor());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> broadcaster.addSubscriber("family-man", episode -> { }, 0, OverflowPolicy.BLOCK));
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        Assertions.assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher;
+
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.Episode;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.event.FamilyMan;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.RingBufferBroadcaster.ProducerType;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.publisher.RingBufferBroadcaster.WaitStrategy;
+import com.refstash.advanced_bean_processing_and_lifecycle_management.spring_events.observer_design_pattern.subscriber.Subscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * RingBufferBroadcaster with one and several producers and consumers on a small ring that wraps
+ * many times: every subscriber gets every episode of its show once, in publication order,
+ * a throwing subscriber neither stops its consumer nor the other subscribers, and only
+ * a VirtualMachineError stops the broadcaster
+ */
+public class RingBufferBroadcasterTest {
+
+    // records "producer:counter" strings, the slot itself is reused and must not be kept
+    private static final class RecordingSubscriber implements Subscriber {
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void update(Episode episode) {
+            received.add(episode.getEpisodeNo());
+        }
+    }
+
+    @Test
+    public void singleProducerSingleConsumer() throws Exception {
+        deliversInOrder(ProducerType.SINGLE, WaitStrategy.YIELD, 1, 1);
+    }
+
+    @Test
+    public void singleProducerSeveralConsumers() throws Exception {
+        deliversInOrder(ProducerType.SINGLE, WaitStrategy.PARK, 3, 1);
+    }
+
+    @Test
+    public void multiProducerSeveralConsumers() throws Exception {
+        deliversInOrder(ProducerType.MULTI, WaitStrategy.YIELD, 3, 4);
+    }
+
+    private static void deliversInOrder(ProducerType producerType, WaitStrategy waitStrategy, int consumers,
+                                        int producers) throws Exception {
+        int bufferSize = 8, perProducer = 2000;
+        RingBufferBroadcaster broadcaster = new RingBufferBroadcaster(new ConcurrentAmazonPrime(), bufferSize,
+                producerType, waitStrategy, consumers);
+        Assertions.assertEquals(bufferSize, broadcaster.remainingCapacity());
+        String[] shows = { "family-man", "panchayat" };
+        List<List<RecordingSubscriber>> subscribers = new ArrayList<>();
+        for (String show : shows) {
+            List<RecordingSubscriber> ofShow = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                RecordingSubscriber subscriber = new RecordingSubscriber();
+                broadcaster.addSubscriber(show, subscriber);
+                ofShow.add(subscriber);
+            }
+            subscribers.add(ofShow);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> published = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            published.add(executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++)
+                    broadcaster.publish(shows[i % 2], producer + ":" + i);
+            }));
+        }
+        for (Future<?> future : published)
+            future.get();
+        executor.shutdown();
+        broadcaster.close();
+
+        String description = producerType + " consumers=" + consumers + " producers=" + producers;
+        Assertions.assertEquals(0, broadcaster.getFailedDeliveries(), description);
+        Assertions.assertEquals(bufferSize, broadcaster.remainingCapacity(), description);
+        for (int s = 0; s < shows.length; s++)
+            for (RecordingSubscriber subscriber : subscribers.get(s)) {
+                Assertions.assertEquals(producers * perProducer / 2, subscriber.received.size(), description);
+                // the episodes of each producer arrive in the order it published them
+                int[] next = new int[producers];
+                for (int p = 0; p < producers; p++)
+                    next[p] = s;
+                for (String episodeNo : subscriber.received) {
+                    int separator = episodeNo.indexOf(':');
+                    int producer = Integer.parseInt(episodeNo.substring(0, separator));
+                    Assertions.assertEquals(next[producer], Integer.parseInt(episodeNo.substring(separator + 1)),
+                            description + " show=" + shows[s]);
+                    next[producer] += 2;
+                }
+            }
+    }
+
+    @Test
+    public void throwingSubscribersAreCountedAndSkipped() throws Exception {
+        RingBufferBroadcaster broadcaster = new RingBufferBroadcaster(new ConcurrentAmazonPrime(), 4,
+                ProducerType.SINGLE, WaitStrategy.YIELD, 2);
+        AtomicInteger errors = new AtomicInteger(), exceptions = new AtomicInteger();
+        broadcaster.addSubscriber("family-man", episode -> {
+            errors.incrementAndGet();
+            throw new AssertionError("error");
+        });
+        broadcaster.addSubscriber("family-man", episode -> {
+            exceptions.incrementAndGet();
+            throw new IllegalStateException("exception");
+        });
+        RecordingSubscriber healthy = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", healthy);
+
+        for (int i = 0; i < 100; i++)
+            broadcaster.broadcast(new FamilyMan(String.valueOf(i)));
+        broadcaster.close();
+        Assertions.assertEquals(100, errors.get());
+        Assertions.assertEquals(100, exceptions.get());
+        Assertions.assertEquals(200, broadcaster.getFailedDeliveries());
+        Assertions.assertEquals(100, healthy.received.size());
+        Assertions.assertEquals("99", healthy.received.get(99));
+    }
+
+    @Test
+    public void virtualMachineErrorStopsTheBroadcaster() throws Exception {
+        RingBufferBroadcaster broadcaster = new RingBufferBroadcaster(new ConcurrentAmazonPrime(), 4,
+                ProducerType.SINGLE, WaitStrategy.YIELD, 1);
+        StackOverflowError overflow = new StackOverflowError("episode 3");
+        broadcaster.addSubscriber("family-man", episode -> {
+            if (episode.getEpisodeNo().equals("3"))
+                throw overflow;
+        });
+        RecordingSubscriber healthy = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", healthy);
+
+        // the producer is released instead of waiting forever for the dead consumer
+        IllegalStateException closed = Assertions.assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; ; i++)
+                broadcaster.publish("family-man", String.valueOf(i));
+        });
+        Assertions.assertSame(overflow, closed.getCause());
+        Assertions.assertSame(overflow, Assertions.assertThrows(StackOverflowError.class, broadcaster::close));
+
+        Assertions.assertEquals(List.of("0", "1", "2"), healthy.received);
+        Assertions.assertEquals(0, broadcaster.getFailedDeliveries(), "not counted as a failed delivery");
+    }
+
+    @Test
+    public void unknownShowsAndSubscribersAddedLater() throws Exception {
+        RingBufferBroadcaster broadcaster = new RingBufferBroadcaster();
+        Assertions.assertEquals(RingBufferBroadcaster.DEFAULT_BUFFER_SIZE, broadcaster.getBufferSize());
+        broadcaster.publish("unknown", "1");
+        broadcaster.publish("family-man", "1");
+        // only subscribers registered when an episode is published receive it
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.addSubscriber("family-man", subscriber);
+        broadcaster.publish("family-man", "2");
+        broadcaster.close();
+        Assertions.assertEquals(List.of("2"), subscriber.received);
+        Assertions.assertEquals(0, broadcaster.getFailedDeliveries());
+    }
+
+    @Test
+    public void rejectsNullShowAndPublishingAfterClose() throws Exception {
+        RingBufferBroadcaster broadcaster = new RingBufferBroadcaster(new ConcurrentAmazonPrime(), 2,
+                ProducerType.SINGLE, WaitStrategy.PARK, 1);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.addSubscriber("panchayat", subscriber);
+        Assertions.assertThrows(NullPointerException.class, () -> broadcaster.publish(null, "1"));
+        // the rejected call claimed no sequence, so the ring keeps flowing
+        for (int i = 0; i < 10; i++)
+            broadcaster.publish("panchayat", String.valueOf(i));
+        broadcaster.close();
+        Assertions.assertEquals(10, subscriber.received.size());
+        Assertions.assertThrows(IllegalStateException.class, () -> broadcaster.publish("panchayat", "10"));
+        Assertions.assertEquals(10, subscriber.received.size());
+    }
+
+    @Test
+    public void rejectsInvalidSettings() {
+        ConcurrentAmazonPrime registry = new ConcurrentAmazonPrime();
+        for (int bufferSize : new int[] { 0, -8, 3, 12 })
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new RingBufferBroadcaster(registry,
+                    bufferSize, ProducerType.MULTI, WaitStrategy.YIELD, 1), "bufferSize=" + bufferSize);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RingBufferBroadcaster(registry, 8, ProducerType.MULTI, WaitStrategy.YIELD, 0));
+    }
+
+}
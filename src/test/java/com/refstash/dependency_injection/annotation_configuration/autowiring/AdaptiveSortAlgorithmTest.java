@@ -0,0 +1,142 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import com.refstash.dependency_injection.annotation_configuration.autowiring.AdaptiveSortAlgorithm.Route;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * AdaptiveSortAlgorithm routes every input to the expected delegate, counts the routes taken,
+ * and merges presorted runs itself instead of handing them to the parallel sort
+ */
+public class AdaptiveSortAlgorithmTest {
+
+    // sorts with Arrays.sort and records which delegate was called
+    private static final class RecordingSort implements SortAlgorithm {
+        private final String name;
+        private final List<String> calls;
+
+        RecordingSort(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public void sort(int[] arr) {
+            calls.add(name);
+            Arrays.sort(arr);
+        }
+    }
+
+    private final List<String> calls = new ArrayList<>();
+
+    private AdaptiveSortAlgorithm adaptive() {
+        AdaptiveSortAlgorithm adaptive = new AdaptiveSortAlgorithm(new RecordingSort("general", calls),
+                new RecordingSort("small-range", calls), new RecordingSort("parallel", calls));
+        adaptive.setParallelThreshold(1000);
+        adaptive.setMaxSmallRange(100);
+        adaptive.setMaxRuns(4);
+        return adaptive;
+    }
+
+    @Test
+    public void routesEveryShape() {
+        AdaptiveSortAlgorithm adaptive = adaptive();
+        Random random = new Random(9);
+
+        assertRoute(adaptive, new int[0], Route.ALREADY_SORTED, null);
+        assertRoute(adaptive, new int[] { 7 }, Route.ALREADY_SORTED, null);
+        assertRoute(adaptive, new int[] { 1, 1, 2, 1_000_000 }, Route.ALREADY_SORTED, null);
+        assertRoute(adaptive, new int[] { 1_000_000, 5, 5, -3 }, Route.REVERSED, null);
+        // all equal keys count as sorted, not reversed
+        assertRoute(adaptive, new int[] { 4, 4, 4 }, Route.ALREADY_SORTED, null);
+        // a range of 99 is below maxSmallRange
+        assertRoute(adaptive, new int[] { 99, 0, 50, 0 }, Route.SMALL_RANGE, "small-range");
+        assertRoute(adaptive, new int[] { Integer.MAX_VALUE, Integer.MIN_VALUE, 1, -1, 2, -2, 3, -3, 4 }, Route.GENERAL,
+                "general");
+        // three ascending runs, fewer than maxRuns
+        assertRoute(adaptive, new int[] { 0, 500, 1000, -1000, 200, -500, 0, 700 }, Route.PRESORTED_RUNS, null);
+        assertRoute(adaptive, random.ints(999, -1_000_000, 1_000_000).toArray(), Route.GENERAL, "general");
+        assertRoute(adaptive, random.ints(1000, -1_000_000, 1_000_000).toArray(), Route.PARALLEL, "parallel");
+    }
+
+    @Test
+    public void presortedRunsAreMergedAtAnyLength() {
+        // long inputs with few runs used to be handed to the parallel sort
+        AdaptiveSortAlgorithm adaptive = adaptive();
+        for (int n : new int[] { 10, 999, 1000, 100_000 }) {
+            int[] input = new int[n];
+            for (int i = 0; i < n; i++)
+                input[i] = (i % (n / 3 + 1)) * 1000 - i;
+            Assertions.assertEquals(Route.PRESORTED_RUNS, adaptive.route(input), "n=" + n);
+            assertRoute(adaptive, input, Route.PRESORTED_RUNS, null);
+        }
+    }
+
+    @Test
+    public void countsRoutes() {
+        AdaptiveSortAlgorithm adaptive = adaptive();
+        Random random = new Random(10);
+        for (int i = 0; i < 3; i++)
+            adaptive.sort(new int[] { 1, 2, 3 });
+        adaptive.sort(new int[] { 3, 2, 1 });
+        for (int i = 0; i < 2; i++)
+            adaptive.sort(random.ints(2000).toArray());
+
+        Assertions.assertEquals(3, adaptive.getCount(Route.ALREADY_SORTED));
+        Assertions.assertEquals(1, adaptive.getCount(Route.REVERSED));
+        Assertions.assertEquals(2, adaptive.getCount(Route.PARALLEL));
+        Assertions.assertEquals(0, adaptive.getCount(Route.GENERAL));
+        Map<Route, Long> counts = adaptive.getCounts();
+        Assertions.assertEquals(Route.values().length, counts.size());
+        Assertions.assertEquals(6, counts.values().stream().mapToLong(Long::longValue).sum());
+
+        adaptive.resetCounts();
+        for (Route route : Route.values())
+            Assertions.assertEquals(0, adaptive.getCount(route), route.toString());
+    }
+
+    @Test
+    public void mergeRunsHandlesAnyRunCount() {
+        Random random = new Random(11);
+        // odd and even run counts, so the result ends up in either array, and equal keys across runs
+        for (int runs : new int[] { 1, 2, 3, 4, 5, 8, 17, 100 })
+            for (int bound : new int[] { 3, 1_000_000 }) {
+                int n = runs * 37;
+                int[] input = new int[n];
+                for (int r = 0; r < runs; r++) {
+                    int[] run = random.ints(37, 0, bound).sorted().toArray();
+                    System.arraycopy(run, 0, input, r * 37, 37);
+                }
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                AdaptiveSortAlgorithm.mergeRuns(input);
+                Assertions.assertArrayEquals(expected, input, "runs=" + runs + " bound=" + bound);
+            }
+
+        // one element per run, the most runs an input can have
+        int[] descending = { 5, 4, 3, 2, 1, 0, -1 };
+        AdaptiveSortAlgorithm.mergeRuns(descending);
+        Assertions.assertArrayEquals(new int[] { -1, 0, 1, 2, 3, 4, 5 }, descending);
+        AdaptiveSortAlgorithm.mergeRuns(new int[0]);
+    }
+
+    private void assertRoute(AdaptiveSortAlgorithm adaptive, int[] input, Route route, String delegate) {
+        String description = Arrays.toString(Arrays.copyOf(input, Math.min(input.length, 8)));
+        Assertions.assertEquals(route, adaptive.route(input), description);
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        calls.clear();
+        long before = adaptive.getCount(route);
+        adaptive.sort(input);
+        Assertions.assertArrayEquals(expected, input, description);
+        Assertions.assertEquals(delegate == null ? List.of() : List.of(delegate), calls, description);
+        Assertions.assertEquals(before + 1, adaptive.getCount(route), description);
+    }
+
+}
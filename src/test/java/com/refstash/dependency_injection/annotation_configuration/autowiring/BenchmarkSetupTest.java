@@ -0,0 +1,129 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Runs the setup and every benchmark method of each JMH benchmark once, for every combination
+ * of its parameters up to a small size, so a benchmark that no longer works fails the build
+ * instead of the next jmh run. Sorting benchmarks must return sorted arrays.
+ */
+public class BenchmarkSetupTest {
+
+    // larger sizes only make the benchmark slower, not different
+    private static final int MAX_SIZE = 1000;
+
+    @Test
+    public void sortAlgorithmBenchmark() throws Exception {
+        runAll(SortAlgorithmBenchmark.class);
+    }
+
+    @Test
+    public void bubbleSortBenchmark() throws Exception {
+        runAll(BubbleSortBenchmark.class);
+    }
+
+    @Test
+    public void binarySearchBenchmark() throws Exception {
+        runAll(BinarySearchBenchmark.class);
+    }
+
+    @Test
+    public void searchStrategyBenchmark() throws Exception {
+        runAll(SearchStrategyBenchmark.class);
+    }
+
+    @Test
+    public void sortAlgorithmsRejectsUnknownQualifiers() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SortAlgorithms.create("unknown"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SearchStrategyBenchmark.create("unknown"));
+    }
+
+    @Test
+    public void distributionsHaveTheirShape() {
+        int n = 5000;
+        for (Distribution distribution : Distribution.values()) {
+            int[] values = distribution.generate(n);
+            Assertions.assertEquals(n, values.length, distribution.toString());
+            Assertions.assertArrayEquals(values, distribution.generate(n), distribution + " is not reproducible");
+        }
+        int[] sorted = Distribution.SORTED.generate(n);
+        int[] reversed = Distribution.REVERSED.generate(n);
+        for (int i = 1; i < n; i++) {
+            Assertions.assertTrue(sorted[i - 1] < sorted[i], "SORTED i=" + i);
+            Assertions.assertTrue(reversed[i - 1] > reversed[i], "REVERSED i=" + i);
+        }
+        Assertions.assertTrue(Arrays.stream(Distribution.FEW_UNIQUE.generate(n)).distinct().count() <= 16);
+    }
+
+    private static void runAll(Class<?> benchmark) throws Exception {
+        List<Field> params = new ArrayList<>();
+        for (Field field : benchmark.getFields())
+            if (field.isAnnotationPresent(Param.class))
+                params.add(field);
+        Assertions.assertFalse(params.isEmpty(), benchmark.getSimpleName() + " has no @Param fields");
+        run(benchmark, params, 0, new ArrayList<>());
+    }
+
+    // walks every combination of parameter values, depth first
+    private static void run(Class<?> benchmark, List<Field> params, int index, List<String> values) throws Exception {
+        if (index == params.size()) {
+            invoke(benchmark, params, values);
+            return;
+        }
+        Field field = params.get(index);
+        for (String value : field.getAnnotation(Param.class).value()) {
+            if (field.getType() == int.class && Integer.parseInt(value) > MAX_SIZE)
+                continue;
+            values.add(value);
+            run(benchmark, params, index + 1, values);
+            values.remove(values.size() - 1);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static void invoke(Class<?> benchmark, List<Field> params, List<String> values) throws Exception {
+        Object state = benchmark.getDeclaredConstructor().newInstance();
+        for (int i = 0; i < params.size(); i++) {
+            Field field = params.get(i);
+            String value = values.get(i);
+            if (field.getType() == int.class)
+                field.setInt(state, Integer.parseInt(value));
+            else if (field.getType().isEnum())
+                field.set(state, Enum.valueOf((Class<Enum>) field.getType(), value));
+            else
+                field.set(state, value);
+        }
+
+        String description = benchmark.getSimpleName() + " " + values;
+        for (Method method : benchmark.getMethods())
+            if (method.isAnnotationPresent(Setup.class))
+                method.invoke(state);
+        int benchmarks = 0;
+        for (Method method : benchmark.getMethods())
+            if (method.isAnnotationPresent(Benchmark.class)) {
+                benchmarks++;
+                // twice, so state carried over from the previous invocation is exercised too
+                for (int round = 0; round < 2; round++) {
+                    Object result = method.invoke(state);
+                    if (result instanceof int[]) {
+                        int[] sorted = (int[]) result;
+                        for (int j = 1; j < sorted.length; j++)
+                            Assertions.assertTrue(sorted[j - 1] <= sorted[j], description + " " + method.getName()
+                                    + " j=" + j);
+                    }
+                }
+            }
+        Assertions.assertTrue(benchmarks > 0, description + " has no @Benchmark methods");
+    }
+
+}
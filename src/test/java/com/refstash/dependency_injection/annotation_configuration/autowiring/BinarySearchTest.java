@@ -0,0 +1,159 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * BinarySearch over a SortedIntIndex: sorted once, searched many times, never touching the caller's array
+ */
+public class BinarySearchTest {
+
+    @Test
+    public void indexLeavesTheSourceUntouched() {
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        int[] source = { 40, 10, 4, 3, 2 };
+        SortedIntIndex index = binarySearch.index(source);
+
+        Assertions.assertArrayEquals(new int[] { 40, 10, 4, 3, 2 }, source);
+        Assertions.assertArrayEquals(new int[] { 2, 3, 4, 10, 40 }, index.toArray());
+        Assertions.assertEquals(5, index.size());
+        Assertions.assertEquals(4, binarySearch.search(index, 40));
+        Assertions.assertEquals(0, binarySearch.search(index, 2));
+        Assertions.assertEquals(-1, binarySearch.search(index, 100));
+        Assertions.assertEquals(-1, index.indexOf(5));
+
+        // toArray hands out a copy
+        index.toArray()[0] = 99;
+        Assertions.assertEquals(2, index.get(0));
+    }
+
+    @Test
+    public void indexAgreesWithArraysBinarySearch() {
+        Random random = new Random(7);
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        for (int round = 0; round < 50; round++) {
+            int n = random.nextInt(2000);
+            int[] source = random.ints(n, -1000, 1000).toArray();
+            SortedIntIndex index = binarySearch.index(source);
+            int[] sorted = source.clone();
+            Arrays.sort(sorted);
+            for (int q = 0; q < 200; q++) {
+                int x = random.nextInt(2100) - 1050;
+                int position = binarySearch.search(index, x);
+                if (Arrays.binarySearch(sorted, x) >= 0)
+                    Assertions.assertEquals(x, sorted[position], "round=" + round + " x=" + x);
+                else
+                    Assertions.assertEquals(-1, position, "round=" + round + " x=" + x);
+            }
+        }
+    }
+
+    @Test
+    public void fingerprintDetectsChangedSources() {
+        SortedIntIndex index = new SortedIntIndex(new int[] { 3, 1, 2 }, new IntroSort());
+        Assertions.assertFalse(index.isStale(new int[] { 3, 1, 2 }));
+        // same values in another order is another source
+        Assertions.assertTrue(index.isStale(new int[] { 1, 2, 3 }));
+        Assertions.assertTrue(index.isStale(new int[] { 3, 1, 2, 4 }));
+        Assertions.assertTrue(index.isStale(new int[] { 3, 1 }));
+
+        int[] source = { 3, 1, 2 };
+        source[0] = 5;
+        Assertions.assertTrue(index.isStale(source));
+        index.rebuild(source);
+        Assertions.assertFalse(index.isStale(source));
+        Assertions.assertArrayEquals(new int[] { 1, 2, 5 }, index.toArray());
+    }
+
+    @Test
+    public void versionChecksRejectRebuiltIndexes() {
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        int[] source = { 40, 10, 4, 3, 2 };
+        SortedIntIndex index = binarySearch.index(source);
+        long version = index.getVersion();
+        Assertions.assertEquals(4, binarySearch.search(index, version, 40));
+
+        source[0] = 41;
+        long rebuilt = index.rebuild(source);
+        Assertions.assertEquals(version + 1, rebuilt);
+        Assertions.assertEquals(rebuilt, index.getVersion());
+        Assertions.assertThrows(IllegalStateException.class, () -> binarySearch.search(index, version, 41));
+        Assertions.assertEquals(4, binarySearch.search(index, rebuilt, 41));
+        Assertions.assertEquals(-1, binarySearch.search(index, rebuilt, 40));
+    }
+
+    @Test
+    public void emptyIndex() {
+        SortedIntIndex index = new SortedIntIndex(new int[0], new IntroSort());
+        Assertions.assertEquals(0, index.size());
+        Assertions.assertEquals(-1, index.indexOf(0));
+        Assertions.assertEquals(-1, index.indexOf(Integer.MIN_VALUE, index.getVersion()));
+    }
+
+    @Test
+    public void searchAllFindsFirstOccurrences() {
+        Random random = new Random(8);
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        for (int n : new int[] { 0, 1, 10, 1000, 100_000 })
+            for (int k : new int[] { 0, 1, 5, 1000 })
+                for (int range : new int[] { 10, 1_000_000, 0 }) {
+                    int[] data = range == 0 ? random.ints(n).toArray() : random.ints(n, -range, range).toArray();
+                    int[] keys = range == 0 ? random.ints(k).toArray() : random.ints(k, -range - 5, range + 5).toArray();
+                    if (k > 1) {
+                        keys[0] = Integer.MIN_VALUE;
+                        keys[1] = Integer.MAX_VALUE;
+                    }
+                    String description = "n=" + n + " k=" + k + " range=" + range;
+
+                    int[] result = binarySearch.searchAll(data, keys);
+                    Assertions.assertEquals(k, result.length, description);
+                    for (int i = 0; i < k; i++)
+                        Assertions.assertEquals(firstOccurrence(data, keys[i]), result[i], description + " key=" + keys[i]);
+
+                    SortedIntIndex index = binarySearch.index(data);
+                    Assertions.assertArrayEquals(result, binarySearch.searchAll(index, keys), description);
+                }
+    }
+
+    @Test
+    public void searchAllKeepsKeyOrderAndDuplicates() {
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        int[] result = binarySearch.searchAll(new int[] { 5, 1, 5, 3, 5 }, new int[] { 5, 4, 1, 5, 3, 6 });
+        Assertions.assertArrayEquals(new int[] { 2, -1, 0, 2, 1, -1 }, result);
+    }
+
+    @Test
+    public void gallopFindsLowerBound() {
+        Random random = new Random(9);
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(500);
+            int[] sorted = random.ints(n, -50, 50).sorted().toArray();
+            int from = n == 0 ? 0 : random.nextInt(n + 1);
+            int to = from + random.nextInt(n - from + 1);
+            for (int key = -52; key <= 52; key++) {
+                int expected = from;
+                while (expected < to && sorted[expected] < key)
+                    expected++;
+                Assertions.assertEquals(expected, BinarySearch.gallop(sorted, from, to, key),
+                        "round=" + round + " from=" + from + " to=" + to + " key=" + key);
+            }
+        }
+    }
+
+    // leftmost position of key in the sorted data, -1 if absent
+    private static int firstOccurrence(int[] sorted, int key) {
+        int l = 0, r = sorted.length;
+        while (l < r) {
+            int m = (l + r) >>> 1;
+            if (sorted[m] < key)
+                l = m + 1;
+            else
+                r = m;
+        }
+        return l < sorted.length && sorted[l] == key ? l : -1;
+    }
+
+}
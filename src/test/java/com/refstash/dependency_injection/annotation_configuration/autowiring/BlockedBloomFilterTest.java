@@ -0,0 +1,86 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/*
+ * BlockedBloomFilter: no false negatives, a measured false positive rate close to the configured one,
+ * and SortedIntIndex lookups that answer the same with and without the filter
+ */
+public class BlockedBloomFilterTest {
+
+    @Test
+    public void noFalseNegativesAndBoundedFalsePositives() {
+        int n = 200_000;
+        // added keys are even, probes are odd, so every hit on a probe is a false positive
+        int[] keys = new Random(23).ints(n).map(value -> value & ~1).toArray();
+        for (double rate : new double[] { 0.1, 0.01, 0.001 }) {
+            BlockedBloomFilter filter = BlockedBloomFilter.of(keys, rate);
+            for (int key : keys)
+                Assertions.assertTrue(filter.mightContain(key), "rate=" + rate + " key=" + key);
+
+            Random random = new Random(24);
+            int trials = 500_000, falsePositives = 0;
+            for (int i = 0; i < trials; i++)
+                if (filter.mightContain(random.nextInt() | 1))
+                    falsePositives++;
+            double measured = (double) falsePositives / trials;
+            Assertions.assertTrue(measured < rate * 1.5, "rate=" + rate + " measured=" + measured);
+            Assertions.assertEquals(rate, filter.getFalsePositiveRate());
+        }
+    }
+
+    @Test
+    public void lowerRatesCostMoreBits() {
+        BlockedBloomFilter loose = new BlockedBloomFilter(10_000, 0.1);
+        BlockedBloomFilter tight = new BlockedBloomFilter(10_000, 0.001);
+        Assertions.assertTrue(tight.bitsPerKey() > loose.bitsPerKey());
+        Assertions.assertTrue(tight.getHashCount() >= loose.getHashCount());
+        // whole 512-bit blocks
+        Assertions.assertEquals(0, tight.bitSize() % 512);
+        Assertions.assertTrue(BlockedBloomFilter.blockedFalsePositiveRate(tight.bitsPerKey(), tight.getHashCount()) <= 0.001);
+    }
+
+    @Test
+    public void emptyFilterRejectsEverything() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(0, 0.01);
+        Random random = new Random(25);
+        for (int i = 0; i < 1000; i++)
+            Assertions.assertFalse(filter.mightContain(random.nextInt()));
+    }
+
+    @Test
+    public void rejectsInvalidSettings() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter(-1, 0.01));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter(10, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter(10, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter(10, Double.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SortedIntIndex(new int[0], new IntroSort(), 1.5));
+    }
+
+    @Test
+    public void filteredIndexAnswersLikeThePlainOne() {
+        Random random = new Random(26);
+        int[] keys = random.ints(50_000, -1_000_000, 1_000_000).toArray();
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        SortedIntIndex filtered = binarySearch.index(keys, 0.01);
+        SortedIntIndex plain = binarySearch.index(keys);
+        Assertions.assertNotNull(filtered.getFilter());
+        Assertions.assertNull(plain.getFilter());
+
+        for (int i = 0; i < 100_000; i++) {
+            int x = i % 2 == 0 ? keys[random.nextInt(keys.length)] : random.nextInt(2_000_000) - 1_000_000;
+            Assertions.assertEquals(plain.indexOf(x), filtered.indexOf(x), "x=" + x);
+        }
+
+        // the filter is rebuilt with the values
+        int[] changed = keys.clone();
+        changed[0] = 5_000_000;
+        filtered.rebuild(changed);
+        Assertions.assertTrue(filtered.contains(5_000_000));
+        Assertions.assertTrue(filtered.getFilter().mightContain(5_000_000));
+    }
+
+}
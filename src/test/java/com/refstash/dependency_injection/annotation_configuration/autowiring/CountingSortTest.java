@@ -0,0 +1,140 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * CountingSort against Arrays.sort: which inputs take the histogram and which the fallback,
+ * negative keys and the extremes of int, and the parallel histogram
+ */
+public class CountingSortTest {
+
+    // counts how often the fallback was asked to sort
+    private static final class CountingFallback implements SortAlgorithm {
+        int calls;
+
+        @Override
+        public void sort(int[] arr) {
+            calls++;
+            Arrays.sort(arr);
+        }
+    }
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void rangeDecidesBetweenHistogramAndFallback() {
+        CountingFallback fallback = new CountingFallback();
+        CountingSort sort = new CountingSort(fallback);
+        sort.setMaxRange(1000);
+
+        // range 1000 fits the budget exactly, 1001 does not
+        assertSorts(sort, withRange(5000, -500, 1000), "range=1000");
+        Assertions.assertEquals(0, fallback.calls);
+        assertSorts(sort, withRange(5000, -500, 1001), "range=1001");
+        Assertions.assertEquals(1, fallback.calls);
+
+        // the histogram may not be more than RANGE_PER_ELEMENT times the input
+        int n = 100;
+        assertSorts(sort, withRange(n, 0, CountingSort.RANGE_PER_ELEMENT * n), "range=4n");
+        Assertions.assertEquals(1, fallback.calls);
+        assertSorts(sort, withRange(n, 0, CountingSort.RANGE_PER_ELEMENT * n + 1), "range=4n+1");
+        Assertions.assertEquals(2, fallback.calls);
+    }
+
+    @Test
+    public void extremesOfInt() {
+        CountingFallback fallback = new CountingFallback();
+        CountingSort sort = new CountingSort(fallback);
+
+        // the full int range must not overflow into a small range
+        assertSorts(sort, new int[] { Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, 1 }, "full range");
+        Assertions.assertEquals(1, fallback.calls);
+
+        // small ranges at either end of int take the histogram
+        int[] low = withRange(1000, Integer.MIN_VALUE, 100);
+        int[] high = withRange(1000, Integer.MAX_VALUE - 99, 100);
+        assertSorts(sort, low, "near MIN_VALUE");
+        assertSorts(sort, high, "near MAX_VALUE");
+        Assertions.assertEquals(Integer.MIN_VALUE, low[0]);
+        Assertions.assertEquals(Integer.MAX_VALUE, high[high.length - 1]);
+        Assertions.assertEquals(1, fallback.calls);
+    }
+
+    @Test
+    public void negativeKeysAndDuplicates() {
+        Random random = new Random(19);
+        CountingFallback fallback = new CountingFallback();
+        CountingSort sort = new CountingSort(fallback);
+        for (int n : new int[] { 2, 3, 100, 10_000 })
+            for (int bound : new int[] { 1, 2, 50 }) {
+                // wider than RANGE_PER_ELEMENT * n would go to the fallback
+                if (2 * bound > CountingSort.RANGE_PER_ELEMENT * n)
+                    continue;
+                int[] input = random.ints(n, -bound, bound).toArray();
+                assertSorts(sort, input, "n=" + n + " bound=" + bound);
+            }
+        Assertions.assertEquals(0, fallback.calls);
+        assertSorts(sort, new int[0], "empty");
+        assertSorts(sort, new int[] { -7 }, "single");
+    }
+
+    @Test
+    public void parallelHistogram() {
+        Random random = new Random(20);
+        CountingFallback fallback = new CountingFallback();
+        CountingSort sort = new CountingSort(fallback);
+        sort.setPool(pool);
+        sort.setParallelThreshold(1000);
+        for (int n : new int[] { 1000, 1001, 4099, 100_000 })
+            for (int bound : new int[] { 1, 3, 1000 }) {
+                // skewed: most values at the bottom of the range, so the writers split unevenly
+                int[] input = random.ints(n, -bound, bound).map(x -> x < 0 ? -bound : x).toArray();
+                assertSorts(sort, input, "n=" + n + " bound=" + bound);
+            }
+        Assertions.assertEquals(0, fallback.calls);
+    }
+
+    @Test
+    public void rejectsEmptyBudget() {
+        CountingSort sort = new CountingSort(new IntroSort());
+        Assertions.assertEquals(CountingSort.DEFAULT_MAX_RANGE, sort.getMaxRange());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sort.setMaxRange(0));
+        Assertions.assertEquals(CountingSort.DEFAULT_MAX_RANGE, sort.getMaxRange());
+    }
+
+    // n values spanning exactly range values starting at min, shuffled
+    private static int[] withRange(int n, int min, int range) {
+        Random random = new Random(n + range);
+        int[] values = new int[n];
+        values[0] = min;
+        values[1] = min + (range - 1);
+        for (int i = 2; i < n; i++)
+            values[i] = min + random.nextInt(range);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = values[i];
+            values[i] = values[j];
+            values[j] = temp;
+        }
+        return values;
+    }
+
+    private static void assertSorts(SortAlgorithm sort, int[] input, String description) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        sort.sort(input);
+        Assertions.assertArrayEquals(expected, input, description);
+    }
+
+}
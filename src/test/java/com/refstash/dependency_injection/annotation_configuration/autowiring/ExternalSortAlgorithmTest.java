@@ -0,0 +1,143 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/*
+ * ExternalSortAlgorithm over files: run generation with a partial last run, multi-pass merges,
+ * clean-up of the spilled runs and rejection of unusable inputs
+ */
+public class ExternalSortAlgorithmTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void sortsFilesOfEverySize() throws IOException {
+        // 300_001 ints never fill the last run exactly, whatever the chunk length
+        for (int n : new int[] { 0, 1, 1000, 300_001 })
+            for (long budget : new long[] { 4L * ExternalSortAlgorithm.MIN_MERGE_BUFFER, ExternalSortAlgorithm.DEFAULT_MEMORY_BUDGET }) {
+                int[] values = new Random(n).ints(n).toArray();
+                Path input = directory.resolve("input"), output = directory.resolve("output");
+                write(input, values);
+
+                ExternalSortAlgorithm external = new ExternalSortAlgorithm(new IntroSort());
+                external.setMemoryBudget(budget);
+                external.setParallelism(3);
+                external.setTempDirectory(directory);
+                external.sort(input, output);
+
+                Arrays.sort(values);
+                Assertions.assertArrayEquals(values, read(output), "n=" + n + " budget=" + budget);
+                // every spilled run is gone
+                try (Stream<Path> files = Files.list(directory)) {
+                    Assertions.assertEquals(2, files.count(), "n=" + n + " budget=" + budget);
+                }
+            }
+    }
+
+    @Test
+    public void mergePassesShareOneSetOfBuffers() throws IOException {
+        // the smallest budget merges at most 3 runs at once, so ~19 runs take three passes
+        ExternalSortAlgorithm external = new ExternalSortAlgorithm(new IntroSort());
+        external.setMemoryBudget(4L * ExternalSortAlgorithm.MIN_MERGE_BUFFER);
+        external.setParallelism(3);
+        external.setTempDirectory(directory);
+        Path input = directory.resolve("input"), output = directory.resolve("output");
+
+        write(input, new int[0]);
+        external.sort(input, output);
+        Assertions.assertEquals(0, read(output).length);
+        Assertions.assertEquals(0, external.getMergeBufferAllocations(), "empty input merges nothing");
+
+        for (int round = 1; round <= 2; round++) {
+            // keys repeat across runs, so buffers left over from an earlier pass would show up as duplicates
+            int[] values = new Random(round).ints(300_001, 0, 1000).toArray();
+            write(input, values);
+            external.sort(input, output);
+            Arrays.sort(values);
+            Assertions.assertArrayEquals(values, read(output), "round=" + round);
+            Assertions.assertEquals(round, external.getMergeBufferAllocations(), "round=" + round);
+        }
+    }
+
+    @Test
+    public void overwritesALongerOutput() throws IOException {
+        Path input = directory.resolve("input"), output = directory.resolve("output");
+        write(input, new int[] { 3, 1, 2 });
+        write(output, new int[] { 9, 9, 9, 9, 9 });
+
+        new ExternalSortAlgorithm(new IntroSort()).sort(input, output);
+        Assertions.assertArrayEquals(new int[] { 1, 2, 3 }, read(output));
+    }
+
+    @Test
+    public void rejectsOutputThatIsTheInput() throws IOException {
+        Path input = directory.resolve("input");
+        write(input, new int[] { 3, 1, 2 });
+        ExternalSortAlgorithm external = new ExternalSortAlgorithm(new IntroSort());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> external.sort(input, input));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> external.sort(input, directory.resolve(".").resolve("input")));
+        // the input was not truncated
+        Assertions.assertArrayEquals(new int[] { 3, 1, 2 }, read(input));
+    }
+
+    @Test
+    public void rejectsTruncatedInput() throws IOException {
+        Path input = directory.resolve("input");
+        Files.write(input, new byte[] { 1, 2, 3, 4, 5 });
+        ExternalSortAlgorithm external = new ExternalSortAlgorithm(new IntroSort());
+        external.setTempDirectory(directory);
+
+        Assertions.assertThrows(IOException.class, () -> external.sort(input, directory.resolve("output")));
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void rejectsInvalidSettings() {
+        ExternalSortAlgorithm external = new ExternalSortAlgorithm(new IntroSort());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> external.setMemoryBudget(4L * ExternalSortAlgorithm.MIN_MERGE_BUFFER - 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> external.setParallelism(0));
+    }
+
+    @Test
+    public void sortsARangeOfAnArray() {
+        int[] values = { 9, 8, 5, 3, 4, 1, 0 };
+        new ExternalSortAlgorithm(new IntroSort()).sort(values, 2, 5);
+        Assertions.assertArrayEquals(new int[] { 9, 8, 3, 4, 5, 1, 0 }, values);
+    }
+
+    private static void write(Path file, int[] values) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int value : values)
+                out.writeInt(value);
+        }
+    }
+
+    private static int[] read(Path file) throws IOException {
+        int[] values = new int[(int) (Files.size(file) / 4)];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int i = 0; i < values.length; i++)
+                values[i] = in.readInt();
+        }
+        return values;
+    }
+
+}
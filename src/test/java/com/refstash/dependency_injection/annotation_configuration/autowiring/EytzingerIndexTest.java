@@ -0,0 +1,90 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * EytzingerIndex must answer exactly like a lower bound search on the sorted array,
+ * for every tree shape: perfect, and with any number of slots on the last level
+ */
+public class EytzingerIndexTest {
+
+    @Test
+    public void everySmallSize() {
+        Random random = new Random(10);
+        for (int n = 0; n <= 300; n++) {
+            int[] sorted = random.ints(n, -n, n + 1).sorted().toArray();
+            check(sorted, -n - 2, n + 2, "n=" + n);
+        }
+    }
+
+    @Test
+    public void largeSizes() {
+        Random random = new Random(11);
+        for (int n : new int[] { 1 << 16, (1 << 16) - 1, (1 << 16) + 1, 100_000 }) {
+            int[] sorted = random.ints(n, -n, n + 1).sorted().toArray();
+            EytzingerIndex index = new EytzingerIndex(sorted);
+            for (int q = 0; q < 20_000; q++) {
+                int x = random.nextInt(2 * n + 5) - n - 2;
+                Assertions.assertEquals(firstOccurrence(sorted, x), index.indexOf(x), "n=" + n + " x=" + x);
+            }
+        }
+    }
+
+    @Test
+    public void extremeValues() {
+        int[] sorted = { Integer.MIN_VALUE, Integer.MIN_VALUE, -1, 0, 0, 0, 1, Integer.MAX_VALUE };
+        EytzingerIndex index = new EytzingerIndex(sorted);
+        Assertions.assertEquals(0, index.indexOf(Integer.MIN_VALUE));
+        Assertions.assertEquals(3, index.indexOf(0));
+        Assertions.assertEquals(7, index.indexOf(Integer.MAX_VALUE));
+        Assertions.assertEquals(-1, index.indexOf(Integer.MAX_VALUE - 1));
+        Assertions.assertTrue(index.contains(-1));
+        Assertions.assertFalse(index.contains(2));
+        Assertions.assertEquals(sorted.length, index.size());
+    }
+
+    @Test
+    public void builtFromBinarySearchAndSortedIntIndex() {
+        int[] source = new Random(12).ints(1000, -500, 500).toArray();
+        int[] sorted = source.clone();
+        Arrays.sort(sorted);
+
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        EytzingerIndex fromSearch = binarySearch.eytzinger(source);
+        EytzingerIndex fromIndex = EytzingerIndex.of(binarySearch.index(source));
+        for (int x = -502; x <= 502; x++) {
+            int expected = firstOccurrence(sorted, x);
+            Assertions.assertEquals(expected, fromSearch.indexOf(x), "x=" + x);
+            Assertions.assertEquals(expected, fromIndex.indexOf(x), "x=" + x);
+            Assertions.assertEquals(expected, binarySearch.search(fromSearch, x), "x=" + x);
+        }
+    }
+
+    private static void check(int[] sorted, int fromKey, int toKey, String description) {
+        EytzingerIndex index = new EytzingerIndex(sorted);
+        Assertions.assertEquals(sorted.length, index.size(), description);
+        for (int x = fromKey; x <= toKey; x++) {
+            int expected = firstOccurrence(sorted, x);
+            Assertions.assertEquals(expected, index.indexOf(x), description + " x=" + x);
+            Assertions.assertEquals(expected >= 0, index.contains(x), description + " x=" + x);
+        }
+    }
+
+    // leftmost position of key in the sorted data, -1 if absent
+    private static int firstOccurrence(int[] sorted, int key) {
+        int l = 0, r = sorted.length;
+        while (l < r) {
+            int m = (l + r) >>> 1;
+            if (sorted[m] < key)
+                l = m + 1;
+            else
+                r = m;
+        }
+        return l < sorted.length && sorted[l] == key ? l : -1;
+    }
+
+}
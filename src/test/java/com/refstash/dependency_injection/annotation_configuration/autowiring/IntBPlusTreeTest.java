@@ -0,0 +1,118 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.NavigableSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+/*
+ * IntBPlusTree against a TreeSet under random inserts and deletes, enough of them to split
+ * and merge nodes on several levels
+ */
+public class IntBPlusTreeTest {
+
+    @Test
+    public void randomInsertsAndDeletes() {
+        for (int seed = 0; seed < 12; seed++) {
+            Random random = new Random(seed);
+            int range = seed % 2 == 0 ? 1000 : 100_000;
+            int[] initial = random.ints(seed % 3 == 0 ? 0 : 5000, -range, range).toArray();
+            IntBPlusTree tree = seed % 3 == 0 ? new IntBPlusTree() : IntBPlusTree.bulkLoad(initial);
+            TreeSet<Integer> model = new TreeSet<>();
+            for (int value : initial)
+                model.add(value);
+
+            for (int op = 0; op < 20_000; op++) {
+                int x = random.nextInt(2 * range) - range;
+                // more deletes in the second half so the tree shrinks again
+                if (random.nextInt(op < 10_000 ? 3 : 2) == 0)
+                    Assertions.assertEquals(model.remove(x), tree.delete(x), "seed=" + seed + " delete " + x);
+                else
+                    Assertions.assertEquals(model.add(x), tree.insert(x), "seed=" + seed + " insert " + x);
+                if (op % 2000 == 0)
+                    check(tree, model, random, range, "seed=" + seed + " op=" + op);
+            }
+            check(tree, model, random, range, "seed=" + seed);
+        }
+    }
+
+    @Test
+    public void deleteEverything() {
+        int n = 10 * IntBPlusTree.LEAF_CAPACITY * IntBPlusTree.INNER_CAPACITY;
+        IntBPlusTree tree = new IntBPlusTree();
+        for (int i = 0; i < n; i++)
+            Assertions.assertTrue(tree.insert(i * 3));
+        Assertions.assertFalse(tree.insert(0));
+        Assertions.assertEquals(n, tree.size());
+
+        for (int i = n - 1; i >= 0; i -= 2)
+            Assertions.assertTrue(tree.delete(i * 3));
+        for (int i = 0; i < n; i += 2)
+            Assertions.assertTrue(tree.delete(i * 3));
+        Assertions.assertEquals(0, tree.size());
+        Assertions.assertFalse(tree.delete(0));
+        Assertions.assertEquals(0, tree.toArray().length);
+        Assertions.assertFalse(tree.iterator().hasNext());
+
+        Assertions.assertTrue(tree.insert(Integer.MIN_VALUE));
+        Assertions.assertTrue(tree.insert(Integer.MAX_VALUE));
+        Assertions.assertArrayEquals(new int[] { Integer.MIN_VALUE, Integer.MAX_VALUE }, tree.toArray());
+    }
+
+    @Test
+    public void bulkLoadKeepsDistinctValuesAndLeavesTheSourceAlone() {
+        int[] values = { 5, 3, 5, 1, 3, 9 };
+        IntBPlusTree tree = IntBPlusTree.bulkLoad(values);
+        Assertions.assertArrayEquals(new int[] { 5, 3, 5, 1, 3, 9 }, values);
+        Assertions.assertArrayEquals(new int[] { 1, 3, 5, 9 }, tree.toArray());
+        Assertions.assertEquals(4, tree.size());
+        Assertions.assertEquals(2, tree.indexOf(5));
+        Assertions.assertEquals(2, tree.rank(4));
+    }
+
+    @Test
+    public void backsBinarySearchThroughUpdates() {
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        Assertions.assertThrows(IllegalStateException.class, () -> binarySearch.search(1));
+
+        IntBPlusTree tree = IntBPlusTree.bulkLoad(new int[] { 40, 10, 4, 3, 2 });
+        binarySearch.setBackingStore(tree);
+        Assertions.assertEquals(4, binarySearch.search(40));
+        tree.insert(1);
+        tree.delete(10);
+        Assertions.assertEquals(4, binarySearch.search(40));
+        Assertions.assertEquals(0, binarySearch.search(1));
+        Assertions.assertEquals(-1, binarySearch.search(10));
+        Assertions.assertEquals(-1, binarySearch.search(tree, 10));
+    }
+
+    private static void check(IntBPlusTree tree, NavigableSet<Integer> model, Random random, int range, String description) {
+        Assertions.assertEquals(model.size(), tree.size(), description);
+        int[] expected = model.stream().mapToInt(Integer::intValue).toArray();
+        Assertions.assertArrayEquals(expected, tree.toArray(), description);
+
+        for (int q = 0; q < 500; q++) {
+            int x = random.nextInt(2 * range + 2) - range - 1;
+            int rank = model.headSet(x, false).size();
+            boolean present = model.contains(x);
+            Assertions.assertEquals(present, tree.contains(x), description + " x=" + x);
+            Assertions.assertEquals(rank, tree.rank(x), description + " x=" + x);
+            Assertions.assertEquals(present ? rank : -1, tree.indexOf(x), description + " x=" + x);
+        }
+
+        for (int q = 0; q < 20; q++) {
+            int from = random.nextInt(2 * range) - range;
+            int to = from + random.nextInt(range / 10 + 1);
+            PrimitiveIterator.OfInt values = tree.range(from, to);
+            for (int value : model.subSet(from, true, to, true)) {
+                Assertions.assertTrue(values.hasNext(), description + " range " + from + ".." + to);
+                Assertions.assertEquals(value, values.nextInt(), description + " range " + from + ".." + to);
+            }
+            Assertions.assertFalse(values.hasNext(), description + " range " + from + ".." + to);
+        }
+    }
+
+}
@@ -0,0 +1,252 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/*
+ * IntSet against a TreeSet for sparse, dense and clustered values, across array, bitmap
+ * and run containers, including a serialization round trip
+ */
+public class IntSetTest {
+
+    @Test
+    public void matchesTreeSet() {
+        Random random = new Random(27);
+        for (int round = 0; round < 60; round++) {
+            int[] a = values(random, round % 4), b = values(random, (round / 4) % 4);
+            TreeSet<Integer> modelA = model(a), modelB = model(b);
+            String description = "round=" + round;
+
+            IntSet setA = IntSet.of(a), setB = new IntSet();
+            Set<Integer> seen = new HashSet<>();
+            for (int value : b)
+                Assertions.assertEquals(seen.add(value), setB.add(value), description + " add " + value);
+            check(modelA, setA, random, description);
+            check(modelB, setB, random, description);
+
+            TreeSet<Integer> union = new TreeSet<>(modelA);
+            union.addAll(modelB);
+            TreeSet<Integer> intersection = new TreeSet<>(modelA);
+            intersection.retainAll(modelB);
+            check(union, setA.union(setB), random, description + " union");
+            check(union, setB.union(setA), random, description + " union");
+            check(intersection, setA.intersection(setB), random, description + " intersection");
+            check(intersection, setB.intersection(setA), random, description + " intersection");
+
+            setB.runOptimize();
+            check(modelB, setB, random, description + " optimized");
+
+            // adds into containers that runOptimize may have turned into runs
+            for (int value : values(random, 2)) {
+                setA.add(value);
+                modelA.add(value);
+            }
+            check(modelA, setA, random, description + " after adds");
+        }
+    }
+
+    @Test
+    public void serializationRoundTrip() {
+        Random random = new Random(28);
+        for (int round = 0; round < 20; round++) {
+            int[] values = values(random, round % 4);
+            IntSet set = IntSet.of(values);
+            for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+                // written after a 3 byte prefix, so the set does not start at position 0
+                ByteBuffer buffer = ByteBuffer.allocate(3 + set.serializedSizeInBytes()).order(order);
+                buffer.put(new byte[3]);
+                set.serialize(buffer);
+                Assertions.assertFalse(buffer.hasRemaining(), "serializedSizeInBytes must be exact");
+                buffer.position(3);
+
+                IntSet copy = IntSet.deserialize(buffer);
+                Assertions.assertFalse(buffer.hasRemaining());
+                Assertions.assertArrayEquals(set.toArray(), copy.toArray(), "round=" + round + " " + order);
+                check(model(values), copy, random, "round=" + round + " " + order);
+            }
+        }
+    }
+
+    @Test
+    public void deserializeRejectsForeignData() {
+        ByteBuffer garbage = ByteBuffer.allocate(16);
+        garbage.putInt(12345).flip();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntSet.deserialize(garbage));
+
+        // a valid set whose container type byte, after cookie, count and key, is overwritten
+        IntSet set = IntSet.of(1);
+        ByteBuffer unknown = ByteBuffer.allocate(set.serializedSizeInBytes());
+        set.serialize(unknown);
+        unknown.put(10, (byte) 9).flip();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntSet.deserialize(unknown));
+    }
+
+    @Test
+    public void deserializeRejectsTruncatedData() {
+        ByteBuffer full = ByteBuffer.wrap(serialized(threeContainerTypes()));
+        for (int length = 0; length < full.capacity(); length++) {
+            ByteBuffer truncated = full.duplicate().limit(length);
+            int cut = length;
+            IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> IntSet.deserialize(truncated), "length=" + cut);
+            Assertions.assertNotNull(exception.getMessage(), "length=" + cut);
+        }
+        Assertions.assertArrayEquals(threeContainerTypes().toArray(), IntSet.deserialize(full).toArray());
+    }
+
+    @Test
+    public void deserializeRejectsCorruptCounts() {
+        // header: cookie 0..3, container count 4..7; first container: key 8..9, type 10, length 11..12
+        for (int count : new int[] { -1, (1 << 16) + 1, Integer.MAX_VALUE, 4 }) {
+            byte[] bytes = serialized(threeContainerTypes());
+            ByteBuffer.wrap(bytes).putInt(4, count);
+            assertRejected(bytes, "count=" + count);
+        }
+
+        // an array container claiming more than ARRAY_MAX values, stored as cardinality - 1
+        byte[] tooLarge = serialized(IntSet.of(1, 5, 9));
+        ByteBuffer.wrap(tooLarge).putChar(11, (char) IntSet.ARRAY_MAX);
+        assertRejected(tooLarge, "array of ARRAY_MAX + 1 values");
+        byte[] allBits = serialized(IntSet.of(1, 5, 9));
+        ByteBuffer.wrap(allBits).putChar(11, (char) 0xFFFF);
+        assertRejected(allBits, "array of 65536 values");
+
+        // values 1, 9, 5
+        byte[] unsorted = serialized(IntSet.of(1, 5, 9));
+        ByteBuffer.wrap(unsorted).putChar(15, (char) 9).putChar(17, (char) 5);
+        assertRejected(unsorted, "unsorted array");
+
+        // runs [0..999] and [500..1499] overlap
+        byte[] overlapping = serialized(IntSet.of(IntStream.range(0, 3000).filter(x -> x < 1000 || x >= 2000).toArray()));
+        ByteBuffer runs = ByteBuffer.wrap(overlapping);
+        Assertions.assertEquals(2, runs.get(10), "expected a run container");
+        Assertions.assertEquals(2, runs.getChar(11), "expected two runs");
+        runs.putChar(17, (char) 500);
+        assertRejected(overlapping, "overlapping runs");
+
+        // a run running past the 65536 values of its container
+        byte[] overflowing = serialized(IntSet.of(IntStream.range(65_000, 65_500).toArray()));
+        ByteBuffer.wrap(overflowing).putChar(15, (char) 1000);
+        assertRejected(overflowing, "run past 65535");
+    }
+
+    // an array, a bitmap and a run container
+    private static IntSet threeContainerTypes() {
+        IntStream array = IntStream.of(1, 5, 9);
+        IntStream bitmap = IntStream.range(0, 10_000).map(i -> (1 << 16) + 3 * i);
+        IntStream run = IntStream.range(2 << 16, (2 << 16) + 1000);
+        return IntSet.of(IntStream.concat(array, IntStream.concat(bitmap, run)).toArray());
+    }
+
+    private static byte[] serialized(IntSet set) {
+        ByteBuffer buffer = ByteBuffer.allocate(set.serializedSizeInBytes());
+        set.serialize(buffer);
+        return buffer.array();
+    }
+
+    private static void assertRejected(byte[] bytes, String description) {
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> IntSet.deserialize(ByteBuffer.wrap(bytes)), description);
+        Assertions.assertNotNull(exception.getMessage(), description);
+    }
+
+    @Test
+    public void containerBoundaries() {
+        // one group grown past ARRAY_MAX turns into a bitmap and keeps answering correctly
+        IntSet set = new IntSet();
+        TreeSet<Integer> model = new TreeSet<>();
+        for (int i = 0; i <= IntSet.ARRAY_MAX + 1; i++) {
+            set.add(i * 3);
+            model.add(i * 3);
+        }
+        check(model, set, new Random(29), "past ARRAY_MAX");
+
+        // values on both sides of the sign and of the 16 bit group boundaries
+        int[] edges = { Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -65537, -65536, -1, 0, 65535, 65536, Integer.MAX_VALUE };
+        IntSet edgeSet = IntSet.of(edges);
+        Assertions.assertArrayEquals(edges, edgeSet.toArray());
+        for (int i = 0; i < edges.length; i++) {
+            Assertions.assertEquals(i, edgeSet.indexOf(edges[i]));
+            Assertions.assertEquals(edges[i], edgeSet.select(i));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> edgeSet.select(edges.length));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> edgeSet.select(-1));
+    }
+
+    @Test
+    public void denseAndClusteredSetsCompress() {
+        int n = 1_000_000;
+        IntSet range = IntSet.of(IntStream.range(0, n).toArray());
+        IntSet twoThirds = IntSet.of(IntStream.range(0, n).filter(i -> i % 3 != 0).toArray());
+        Assertions.assertEquals(n, range.cardinality());
+        // a sorted int[] takes 4 bytes per value
+        Assertions.assertTrue(range.serializedSizeInBytes() < n / 100, "range: " + range.serializedSizeInBytes());
+        Assertions.assertTrue(twoThirds.serializedSizeInBytes() < twoThirds.cardinality() / 2,
+                "two thirds: " + twoThirds.serializedSizeInBytes());
+
+        IntSet empty = IntSet.of();
+        Assertions.assertTrue(empty.isEmpty());
+        Assertions.assertEquals(-1, empty.indexOf(0));
+        Assertions.assertEquals(0, empty.rank(0));
+    }
+
+    private static int[] values(Random random, int shape) {
+        switch (shape) {
+            case 0:
+                // sparse: array containers
+                return random.ints(random.nextInt(5000), -200_000, 200_000).toArray();
+            case 1:
+                // dense: bitmap containers
+                return random.ints(random.nextInt(200_000), -100_000, 300_000).toArray();
+            case 2: {
+                // clustered: run containers
+                IntStream.Builder values = IntStream.builder();
+                int runs = random.nextInt(300);
+                for (int i = 0; i < runs; i++) {
+                    int start = random.nextInt(), length = random.nextInt(3000);
+                    for (int j = 0; j < length && start + j >= start; j++)
+                        values.add(start + j);
+                }
+                return values.build().toArray();
+            }
+            default:
+                return random.ints(random.nextInt(1000)).toArray();
+        }
+    }
+
+    private static TreeSet<Integer> model(int[] values) {
+        TreeSet<Integer> model = new TreeSet<>();
+        for (int value : values)
+            model.add(value);
+        return model;
+    }
+
+    private static void check(NavigableSet<Integer> model, IntSet set, Random random, String description) {
+        int[] expected = model.stream().mapToInt(Integer::intValue).toArray();
+        Assertions.assertArrayEquals(expected, set.toArray(), description);
+        Assertions.assertEquals(expected.length, set.size(), description);
+        Assertions.assertEquals(expected.length == 0, set.isEmpty(), description);
+        for (int q = 0; q < 2000 && expected.length > 0; q++) {
+            int i = random.nextInt(expected.length);
+            Assertions.assertEquals(expected[i], set.select(i), description + " select " + i);
+            Assertions.assertEquals(i, set.rank(expected[i]), description + " rank " + expected[i]);
+            Assertions.assertEquals(i, set.indexOf(expected[i]), description + " indexOf " + expected[i]);
+
+            int x = expected[i] + random.nextInt(7) - 3;
+            Assertions.assertEquals(model.contains(x), set.contains(x), description + " contains " + x);
+            int position = Arrays.binarySearch(expected, x);
+            Assertions.assertEquals(position >= 0 ? position : -position - 1, set.rank(x), description + " rank " + x);
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * IntroSort against Arrays.sort, including the heapsort fallback once the depth limit is spent
+ * and sorting a sub-range in place
+ */
+public class IntroSortTest {
+
+    @Test
+    public void sortsCommonShapes() {
+        Random random = new Random(5);
+        IntroSort sort = new IntroSort();
+        for (int n : new int[] { 0, 1, 2, IntroSort.INSERTION_SORT_THRESHOLD - 1, IntroSort.INSERTION_SORT_THRESHOLD,
+                IntroSort.INSERTION_SORT_THRESHOLD + 1, 1000, 100_000 })
+            for (int shape = 0; shape < 5; shape++) {
+                int[] input = shape(n, shape, random);
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                sort.sort(input);
+                Assertions.assertArrayEquals(expected, input, "n=" + n + " shape=" + shape);
+            }
+    }
+
+    @Test
+    public void depthLimitFallsBackToHeapSort() {
+        // a limit of 0 goes straight to heapsort, small limits switch after a few partitions
+        Random random = new Random(6);
+        IntroSort sort = new IntroSort();
+        for (int depthLimit : new int[] { 0, 1, 2, 3 })
+            for (int n : new int[] { IntroSort.INSERTION_SORT_THRESHOLD, 100, 1000, 50_000 })
+                for (int shape = 0; shape < 5; shape++) {
+                    int[] input = shape(n, shape, random);
+                    int[] expected = input.clone();
+                    Arrays.sort(expected);
+                    sort.sort(input, 0, n - 1, depthLimit);
+                    Assertions.assertArrayEquals(expected, input,
+                            "depthLimit=" + depthLimit + " n=" + n + " shape=" + shape);
+                }
+    }
+
+    @Test
+    public void heapSortOfARange() {
+        Random random = new Random(7);
+        for (int n : new int[] { 1, 2, 3, 10, 1000 }) {
+            int[] input = random.ints(n + 20, -50, 50).toArray();
+            int[] expected = input.clone();
+            Arrays.sort(expected, 10, 10 + n);
+            IntroSort.heapSort(input, 10, 10 + n - 1);
+            Assertions.assertArrayEquals(expected, input, "n=" + n);
+        }
+    }
+
+    @Test
+    public void sortsARangeInPlace() {
+        Random random = new Random(8);
+        IntroSort sort = new IntroSort();
+        for (int n : new int[] { 0, 1, 2, 50, 10_000 }) {
+            int[] input = random.ints(n + 30).toArray();
+            int[] expected = input.clone();
+            Arrays.sort(expected, 13, 13 + n);
+            sort.sort(input, 13, 13 + n);
+            Assertions.assertArrayEquals(expected, input, "n=" + n);
+        }
+    }
+
+    // random, few distinct keys, ascending, descending, organ pipe
+    private static int[] shape(int n, int shape, Random random) {
+        int[] input = new int[n];
+        for (int i = 0; i < n; i++)
+            switch (shape) {
+                case 0:
+                    input[i] = random.nextInt();
+                    break;
+                case 1:
+                    input[i] = random.nextInt(4);
+                    break;
+                case 2:
+                    input[i] = i;
+                    break;
+                case 3:
+                    input[i] = n - i;
+                    break;
+                default:
+                    input[i] = Math.min(i, n - i);
+            }
+        return input;
+    }
+
+}
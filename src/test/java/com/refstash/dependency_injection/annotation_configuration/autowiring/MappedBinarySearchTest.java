@@ -0,0 +1,132 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * MappedBinarySearch over sorted int files; tiny segment shifts split the file into many
+ * mappings, so lookups cross segment boundaries the way they do past 1 GB
+ */
+public class MappedBinarySearchTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void searchesAcrossSegments() throws IOException {
+        int n = 100_003;
+        int[] sorted = new Random(13).ints(n, -1_000_000, 1_000_000).sorted().toArray();
+        Path file = directory.resolve("sorted");
+        write(file, sorted);
+
+        for (int shift : new int[] { 2, 4, 10, MappedBinarySearch.SEGMENT_SHIFT })
+            try (MappedBinarySearch mapped = new MappedBinarySearch(file, shift)) {
+                Assertions.assertEquals(n, mapped.size());
+                // the ints on both sides of every segment boundary
+                for (long i = 0; i < n; i += 1L << Math.min(shift, 20)) {
+                    Assertions.assertEquals(sorted[(int) i], mapped.get(i), "shift=" + shift + " i=" + i);
+                    if (i > 0)
+                        Assertions.assertEquals(sorted[(int) i - 1], mapped.get(i - 1), "shift=" + shift + " i=" + (i - 1));
+                }
+                Assertions.assertEquals(sorted[n - 1], mapped.get(n - 1));
+
+                for (int x = -1_000_010; x < 1_000_010; x += 7) {
+                    long position = mapped.search(x);
+                    if (Arrays.binarySearch(sorted, x) >= 0)
+                        Assertions.assertEquals(x, mapped.get(position), "shift=" + shift + " x=" + x);
+                    else
+                        Assertions.assertEquals(-1, position, "shift=" + shift + " x=" + x);
+                }
+            }
+    }
+
+    @Test
+    public void searchesTheOutputOfExternalSort() throws IOException {
+        int[] values = new Random(14).ints(50_000, -100, 100).toArray();
+        Path input = directory.resolve("input"), output = directory.resolve("output");
+        write(input, values);
+        new ExternalSortAlgorithm(new IntroSort()).sort(input, output);
+
+        try (MappedBinarySearch mapped = new MappedBinarySearch(output)) {
+            Assertions.assertEquals(values.length, mapped.size());
+            int[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (int x = -102; x < 102; x++) {
+                long position = mapped.search(x);
+                boolean present = Arrays.binarySearch(sorted, x) >= 0;
+                Assertions.assertEquals(present, position >= 0, "x=" + x);
+                if (present)
+                    Assertions.assertEquals(x, mapped.get(position));
+            }
+        }
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        Path file = directory.resolve("empty");
+        write(file, new int[0]);
+        try (MappedBinarySearch mapped = new MappedBinarySearch(file)) {
+            Assertions.assertEquals(0, mapped.size());
+            Assertions.assertEquals(-1, mapped.search(0));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(0));
+        }
+    }
+
+    @Test
+    public void rejectsPartialInts() throws IOException {
+        Path file = directory.resolve("partial");
+        for (int length : new int[] { 1, 2, 3, 5, 6, 7, 4099 }) {
+            Files.write(file, new byte[length]);
+            IOException exception = Assertions.assertThrows(IOException.class, () -> new MappedBinarySearch(file, 2),
+                    "length=" + length);
+            Assertions.assertTrue(exception.getMessage().contains("multiple of 4"), exception.getMessage());
+        }
+    }
+
+    @Test
+    public void rejectsInvalidSegmentShifts() throws IOException {
+        Path file = directory.resolve("sorted");
+        write(file, new int[] { 1, 2, 3 });
+        // past 28 a segment would need a mapping of 2 GB or more
+        for (int shift : new int[] { -1, MappedBinarySearch.SEGMENT_SHIFT + 1, 30, 31, 32, 64 })
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedBinarySearch(file, shift),
+                    "shift=" + shift);
+
+        // one int per segment is the smallest layout
+        try (MappedBinarySearch mapped = new MappedBinarySearch(file, 0)) {
+            Assertions.assertEquals(3, mapped.get(2));
+            Assertions.assertEquals(0, mapped.search(1));
+        }
+    }
+
+    @Test
+    public void failsOnceClosedOrOutOfBounds() throws IOException {
+        Path file = directory.resolve("sorted");
+        write(file, new int[] { 1, 2, 3 });
+        MappedBinarySearch mapped = new MappedBinarySearch(file, 1);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(3));
+        Assertions.assertEquals(2, mapped.search(3));
+
+        mapped.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> mapped.search(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> mapped.get(0));
+    }
+
+    private static void write(Path file, int[] values) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int value : values)
+                out.writeInt(value);
+        }
+    }
+
+}
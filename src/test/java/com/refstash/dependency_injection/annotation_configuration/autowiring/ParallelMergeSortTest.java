@@ -0,0 +1,70 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * ParallelMergeSort down to the smallest thresholds, where both the sort and the merge
+ * split into tasks of one or two elements
+ */
+public class ParallelMergeSortTest {
+
+    // parallelism above 1 even on a single CPU, so the fork/join paths are taken
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void smallestThresholdsWithEqualKeys() {
+        Random random = new Random(40);
+        for (int threshold : new int[] { 2, 3, 4 }) {
+            ParallelMergeSort sort = new ParallelMergeSort();
+            sort.setPool(pool);
+            sort.setThreshold(threshold);
+            for (int n : new int[] { 2, 3, 4, 5, 17, 100, 1000, 10_000 })
+                for (int bound : new int[] { 1, 2, 3, 1000 }) {
+                    // bound 1 makes every key equal, 2 and 3 give long runs of equal keys
+                    int[] input = random.ints(n, 0, bound).toArray();
+                    int[] expected = input.clone();
+                    Arrays.sort(expected);
+                    sort.sort(input);
+                    Assertions.assertArrayEquals(expected, input, "threshold=" + threshold + " n=" + n + " bound=" + bound);
+                }
+        }
+    }
+
+    @Test
+    public void reversedAndPresortedHalves() {
+        ParallelMergeSort sort = new ParallelMergeSort();
+        sort.setPool(pool);
+        sort.setThreshold(2);
+        int n = 4099;
+        int[] reversed = new int[n];
+        for (int i = 0; i < n; i++)
+            reversed[i] = n - i;
+        int[] expected = reversed.clone();
+        Arrays.sort(expected);
+        sort.sort(reversed);
+        Assertions.assertArrayEquals(expected, reversed);
+
+        // already sorted: every merge is skipped
+        sort.sort(reversed);
+        Assertions.assertArrayEquals(expected, reversed);
+    }
+
+    @Test
+    public void rejectsThresholdsBelowTwo() {
+        ParallelMergeSort sort = new ParallelMergeSort();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sort.setThreshold(1));
+        Assertions.assertEquals(ParallelMergeSort.DEFAULT_THRESHOLD, sort.getThreshold());
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * argsort as used for key/payload pairs, and the long[] and double[] radix sorts past the
+ * size up to which their scratch buffers are cached
+ */
+public class PrimitiveSortTest {
+
+    @Test
+    public void argsortReordersPayloads() {
+        Random random = new Random(15);
+        int n = 5000;
+        long[] longKeys = random.longs(n, -20, 20).toArray();
+        double[] doubleKeys = random.doubles(n).map(d -> Math.floor(d * 40) - 20).toArray();
+        int[] intKeys = random.ints(n, -20, 20).toArray();
+
+        long[] longCopy = longKeys.clone();
+        double[] doubleCopy = doubleKeys.clone();
+        int[] intCopy = intKeys.clone();
+        int[] byLong = new LongRadixSort().argsort(longKeys);
+        int[] byDouble = new DoubleRadixSort().argsort(doubleKeys);
+        int[] byInt = new RadixSort().argsort(intKeys);
+
+        // argsort never touches the keys
+        Assertions.assertArrayEquals(longCopy, longKeys);
+        Assertions.assertArrayEquals(doubleCopy, doubleKeys);
+        Assertions.assertArrayEquals(intCopy, intKeys);
+
+        checkPermutation(byLong, n);
+        checkPermutation(byDouble, n);
+        checkPermutation(byInt, n);
+        for (int i = 1; i < n; i++) {
+            Assertions.assertTrue(longKeys[byLong[i - 1]] < longKeys[byLong[i]]
+                    || longKeys[byLong[i - 1]] == longKeys[byLong[i]] && byLong[i - 1] < byLong[i], "i=" + i);
+            int order = Double.compare(doubleKeys[byDouble[i - 1]], doubleKeys[byDouble[i]]);
+            Assertions.assertTrue(order < 0 || order == 0 && byDouble[i - 1] < byDouble[i], "i=" + i);
+            Assertions.assertTrue(intKeys[byInt[i - 1]] < intKeys[byInt[i]]
+                    || intKeys[byInt[i - 1]] == intKeys[byInt[i]] && byInt[i - 1] < byInt[i], "i=" + i);
+        }
+
+        // a payload column reordered by the permutation lines up with the sorted keys
+        String[] payload = new String[n];
+        for (int i = 0; i < n; i++)
+            payload[i] = Long.toString(longKeys[i]);
+        long[] sortedKeys = longKeys.clone();
+        Arrays.sort(sortedKeys);
+        for (int i = 0; i < n; i++)
+            Assertions.assertEquals(Long.toString(sortedKeys[i]), payload[byLong[i]], "i=" + i);
+    }
+
+    @Test
+    public void argsortOfEmptyAndSingleArrays() {
+        Assertions.assertEquals(0, new LongRadixSort().argsort(new long[0]).length);
+        Assertions.assertEquals(0, new DoubleRadixSort().argsort(new double[0]).length);
+        Assertions.assertArrayEquals(new int[] { 0 }, new LongRadixSort().argsort(new long[] { 7 }));
+        Assertions.assertArrayEquals(new int[] { 0 }, new DoubleRadixSort().argsort(new double[] { Double.NaN }));
+    }
+
+    @Test
+    public void sortsPastTheCachedBufferSize() {
+        Random random = new Random(16);
+        int n = RadixSort.MAX_CACHED_BUFFER + 3;
+
+        long[] longs = random.longs(n).toArray();
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        new LongRadixSort().sort(longs);
+        Assertions.assertArrayEquals(expectedLongs, longs);
+
+        double[] doubles = random.doubles(n).map(d -> d - 0.5).toArray();
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedDoubles);
+        new DoubleRadixSort().sort(doubles);
+        Assertions.assertArrayEquals(expectedDoubles, doubles);
+
+        int[] ints = random.ints(n).toArray();
+        int[] expectedInts = ints.clone();
+        Arrays.sort(expectedInts);
+        new RadixSort().sort(ints);
+        Assertions.assertArrayEquals(expectedInts, ints);
+    }
+
+    private static void checkPermutation(int[] permutation, int n) {
+        Assertions.assertEquals(n, permutation.length);
+        boolean[] seen = new boolean[n];
+        for (int index : permutation) {
+            Assertions.assertFalse(seen[index], "index " + index + " twice");
+            seen[index] = true;
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * RadixSort against Arrays.sort: signed keys, the extremes of int, and inputs where
+ * some of the four byte passes are skipped so the result ends up in the scratch buffer
+ */
+public class RadixSortTest {
+
+    @Test
+    public void negativeKeysAndExtremes() {
+        Random random = new Random(2);
+        RadixSort sort = new RadixSort();
+        for (int n : new int[] { 2, 3, 17, 256, 1000, 65_537 })
+            for (int round = 0; round < 5; round++) {
+                int[] input = random.ints(n).toArray();
+                // plant the extremes and their neighbours at random positions
+                int[] extremes = { Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE - 1,
+                        Integer.MAX_VALUE };
+                for (int extreme : extremes)
+                    input[random.nextInt(n)] = extreme;
+                assertSorts(sort, input, "n=" + n + " round=" + round);
+            }
+    }
+
+    @Test
+    public void onlyExtremes() {
+        RadixSort sort = new RadixSort();
+        assertSorts(sort, new int[] { Integer.MAX_VALUE, Integer.MIN_VALUE }, "max, min");
+        assertSorts(sort, new int[] { Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, 0 },
+                "max, min, 0");
+        assertSorts(sort, new int[] { -1, Integer.MIN_VALUE, -2, Integer.MAX_VALUE, -256, 255, -65_536 },
+                "mixed signs");
+    }
+
+    @Test
+    public void skippedPasses() {
+        Random random = new Random(3);
+        RadixSort sort = new RadixSort();
+        // mask restricts which bytes vary: only the low byte (one pass, odd),
+        // the low two (even), the low three (odd) and only the sign byte (odd)
+        for (int mask : new int[] { 0xFF, 0xFFFF, 0xFF_FFFF, 0xFF00_0000 })
+            for (int base : new int[] { 0, -1 << 24, Integer.MIN_VALUE })
+                for (int n : new int[] { 2, 100, 5000 }) {
+                    int[] input = new int[n];
+                    for (int i = 0; i < n; i++)
+                        input[i] = base | (random.nextInt() & mask);
+                    assertSorts(sort, input, "mask=" + Integer.toHexString(mask) + " base=" + base + " n=" + n);
+                }
+    }
+
+    @Test
+    public void equalKeysAndTrivialInputs() {
+        RadixSort sort = new RadixSort();
+        for (int value : new int[] { Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE }) {
+            int[] input = new int[1000];
+            Arrays.fill(input, value);
+            assertSorts(sort, input, "all " + value);
+        }
+        assertSorts(sort, new int[0], "empty");
+        assertSorts(sort, new int[] { -5 }, "single");
+    }
+
+    @Test
+    public void scratchBufferReusedAcrossLengths() {
+        // a long sort leaves a large buffer behind, shorter sorts must only use its prefix
+        Random random = new Random(4);
+        RadixSort sort = new RadixSort();
+        for (int n : new int[] { 10_000, 10, 5000, 3, 20_000, 1 }) {
+            int[] input = random.ints(n, -1000, 1000).toArray();
+            assertSorts(sort, input, "n=" + n);
+        }
+    }
+
+    private static void assertSorts(RadixSort sort, int[] input, String description) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        sort.sort(input);
+        Assertions.assertArrayEquals(expected, input, description);
+    }
+
+}
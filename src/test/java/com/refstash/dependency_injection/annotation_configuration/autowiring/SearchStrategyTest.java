@@ -0,0 +1,117 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * Every SearchStrategy must be correct on any sorted input, whatever the distribution;
+ * AdaptiveSearchStrategy must pick interpolation only where it pays off
+ */
+public class SearchStrategyTest {
+
+    @Test
+    public void everyStrategyOnEveryDistribution() {
+        Random random = new Random(30);
+        for (Map.Entry<String, SearchStrategy> entry : strategies().entrySet())
+            for (int round = 0; round < 300; round++) {
+                int n = random.nextInt(round < 150 ? 50 : 20_000);
+                int shape = round % 5;
+                int[] sorted = values(n, shape, random);
+                String description = entry.getKey() + " shape=" + shape + " n=" + n;
+
+                for (int q = 0; q < 300; q++) {
+                    int x = n > 0 && random.nextBoolean() ? sorted[random.nextInt(n)] + random.nextInt(3) - 1 : random.nextInt();
+                    if (q == 0)
+                        x = Integer.MIN_VALUE;
+                    if (q == 1)
+                        x = Integer.MAX_VALUE;
+                    int position = entry.getValue().search(sorted, x);
+                    if (Arrays.binarySearch(sorted, x) >= 0)
+                        Assertions.assertEquals(x, sorted[position], description + " x=" + x);
+                    else
+                        Assertions.assertEquals(-1, position, description + " x=" + x);
+                }
+            }
+    }
+
+    @Test
+    public void adaptiveChoosesByDistribution() {
+        BinarySearchStrategy binary = new BinarySearchStrategy();
+        InterpolationSearch interpolation = new InterpolationSearch();
+        InterpolationSequentialSearch sequential = new InterpolationSequentialSearch();
+        AdaptiveSearchStrategy adaptive = new AdaptiveSearchStrategy(binary, interpolation, sequential);
+        int n = 100_000;
+
+        int[] linear = new int[n];
+        for (int i = 0; i < n; i++)
+            linear[i] = i * 7;
+        Assertions.assertSame(sequential, adaptive.choose(linear));
+
+        // almost every value is small, a handful sit near MAX_VALUE
+        int[] skewed = new int[n];
+        for (int i = 0; i < n; i++)
+            skewed[i] = i < n - 10 ? i : Integer.MAX_VALUE - (n - i);
+        Assertions.assertSame(binary, adaptive.choose(skewed));
+
+        int[] small = { 1, 2, 3, 4 };
+        Assertions.assertSame(binary, adaptive.choose(small));
+        int[] constant = new int[n];
+        Assertions.assertSame(binary, adaptive.choose(constant));
+
+        // random uniform keys are close to, but not exactly on, the line between the ends
+        int[] uniform = new Random(31).ints(n).sorted().toArray();
+        Assertions.assertNotSame(binary, adaptive.choose(uniform));
+    }
+
+    @Test
+    public void binarySearchUsesTheConfiguredStrategy() {
+        BinarySearch binarySearch = new BinarySearch(new IntroSort());
+        Assertions.assertTrue(binarySearch.getSearchStrategy() instanceof BinarySearchStrategy);
+        binarySearch.setSearchStrategy(new InterpolationSearch());
+        int[] values = { 40, 10, 4, 3, 2 };
+        Assertions.assertEquals(4, binarySearch.search(values, 40));
+        Assertions.assertEquals(-1, binarySearch.search(values, 5));
+    }
+
+    private static Map<String, SearchStrategy> strategies() {
+        Map<String, SearchStrategy> strategies = new LinkedHashMap<>();
+        strategies.put("binary", new BinarySearchStrategy());
+        strategies.put("interpolation", new InterpolationSearch());
+        strategies.put("interpolation-sequential", new InterpolationSequentialSearch());
+        strategies.put("adaptive", new AdaptiveSearchStrategy(new BinarySearchStrategy(), new InterpolationSearch(),
+                new InterpolationSequentialSearch()));
+        return strategies;
+    }
+
+    private static int[] values(int n, int shape, Random random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            switch (shape) {
+                case 0:
+                    values[i] = random.nextInt();
+                    break;
+                case 1:
+                    values[i] = i * 3;
+                    break;
+                case 2:
+                    values[i] = random.nextInt(10);
+                    break;
+                case 3:
+                    // exponential spread
+                    values[i] = (int) Math.min(Integer.MAX_VALUE, Math.exp(random.nextDouble() * 21));
+                    break;
+                default:
+                    // both ends of the int range, where a high - low difference overflows
+                    values[i] = random.nextBoolean() ? Integer.MIN_VALUE : Integer.MAX_VALUE - random.nextInt(3);
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+}
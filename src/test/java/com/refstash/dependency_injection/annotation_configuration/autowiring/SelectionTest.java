@@ -0,0 +1,135 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/*
+ * IntroSelect and TopK against a full Arrays.sort
+ */
+public class SelectionTest {
+
+    @Test
+    public void selectAndPartialSort() {
+        Random random = new Random(17);
+        IntroSelect selection = new IntroSelect();
+        for (int n : new int[] { 1, 2, 15, 17, 1000, 100_000 })
+            for (int shape = 0; shape < 4; shape++)
+                for (int round = 0; round < 5; round++) {
+                    int[] input = shape(n, shape, random);
+                    int[] expected = input.clone();
+                    Arrays.sort(expected);
+                    String description = "n=" + n + " shape=" + shape + " round=" + round;
+
+                    int k = random.nextInt(n);
+                    int[] selected = input.clone();
+                    selection.select(selected, k);
+                    Assertions.assertEquals(expected[k], selected[k], description + " k=" + k);
+                    for (int i = 0; i < n; i++)
+                        Assertions.assertTrue(i < k ? selected[i] <= selected[k] : selected[i] >= selected[k],
+                                description + " k=" + k + " i=" + i);
+                    assertSameValues(expected, selected, description);
+
+                    int prefix = random.nextInt(n + 1);
+                    int[] partial = input.clone();
+                    selection.partialSort(partial, prefix);
+                    Assertions.assertArrayEquals(Arrays.copyOf(expected, prefix), Arrays.copyOf(partial, prefix),
+                            description + " prefix=" + prefix);
+                    assertSameValues(expected, partial, description);
+
+                    int[] heap = input.clone();
+                    IntroSelect.heapSelect(heap, 0, n - 1, k);
+                    Assertions.assertEquals(expected[k], heap[k], description + " heapSelect k=" + k);
+                }
+    }
+
+    @Test
+    public void selectOnZigzagInput() {
+        // an ascending sequence interleaved with a descending one
+        int n = 200_000;
+        int[] input = new int[n];
+        for (int i = 0; i < n; i++)
+            input[i] = i % 2 == 0 ? i : n - i;
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        for (int k : new int[] { 0, n / 2, n - 1 }) {
+            int[] selected = input.clone();
+            new IntroSelect().select(selected, k);
+            Assertions.assertEquals(expected[k], selected[k], "k=" + k);
+        }
+    }
+
+    @Test
+    public void selectRejectsOutOfRangeK() {
+        IntroSelect selection = new IntroSelect();
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> selection.select(new int[3], 3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> selection.select(new int[3], -1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> selection.partialSort(new int[3], 4));
+        int[] empty = new int[0];
+        selection.partialSort(empty, 0);
+    }
+
+    @Test
+    public void topKOverChunks() {
+        Random random = new Random(18);
+        for (int n : new int[] { 0, 1, 100, 10_000 })
+            for (int k : new int[] { 0, 1, 7, 100, 20_000 }) {
+                int[] input = random.ints(n, -50, 50).toArray();
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                int kept = Math.min(k, n);
+
+                TopK smallest = TopK.smallest(k), largest = TopK.largest(k);
+                for (int from = 0; from < n; from += 333) {
+                    smallest.offer(input, from, Math.min(n, from + 333));
+                    largest.offer(input, from, Math.min(n, from + 333));
+                }
+                Assertions.assertEquals(kept, smallest.size());
+                Assertions.assertArrayEquals(Arrays.copyOf(expected, kept), smallest.toSortedArray(), "n=" + n + " k=" + k);
+                int[] top = new int[kept];
+                for (int i = 0; i < kept; i++)
+                    top[i] = expected[n - 1 - i];
+                Assertions.assertArrayEquals(top, largest.toSortedArray(), "n=" + n + " k=" + k);
+            }
+    }
+
+    @Test
+    public void topKExtremesAndClear() {
+        TopK largest = TopK.largest(2);
+        largest.offer(new int[] { 0, Integer.MIN_VALUE, Integer.MAX_VALUE, -1 });
+        Assertions.assertArrayEquals(new int[] { Integer.MAX_VALUE, 0 }, largest.toSortedArray());
+
+        TopK smallest = TopK.smallest(2);
+        smallest.offer(new int[] { 0, Integer.MAX_VALUE, Integer.MIN_VALUE, 1 });
+        Assertions.assertArrayEquals(new int[] { Integer.MIN_VALUE, 0 }, smallest.toSortedArray());
+
+        smallest.clear();
+        Assertions.assertEquals(0, smallest.size());
+        smallest.offer(5);
+        Assertions.assertArrayEquals(new int[] { 5 }, smallest.toSortedArray());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TopK.smallest(-1));
+    }
+
+    private static int[] shape(int n, int shape, Random random) {
+        switch (shape) {
+            case 0:
+                return random.ints(n).toArray();
+            case 1:
+                return random.ints(n, 0, 3).toArray();
+            case 2:
+                return IntStream.range(0, n).toArray();
+            default:
+                return IntStream.range(0, n).map(i -> n - i).toArray();
+        }
+    }
+
+    private static void assertSameValues(int[] sorted, int[] actual, String description) {
+        int[] copy = actual.clone();
+        Arrays.sort(copy);
+        Assertions.assertArrayEquals(sorted, copy, description);
+    }
+
+}
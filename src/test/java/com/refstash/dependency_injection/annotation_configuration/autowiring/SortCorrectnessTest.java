@@ -0,0 +1,220 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+ * Differential tests: every sort must produce exactly what Arrays.sort produces
+ */
+public class SortCorrectnessTest {
+
+    private static final int[] BENCH_SIZES = { 0, 1, 2, 3, 5, 8, 31, 64, 100, 257, 1000, 1024, 1025, 4096 };
+    private static final int QUADRATIC_MAX_SIZE = 1025;
+
+    private static final int FUZZ_ROUNDS = 300;
+
+    @TestFactory
+    public Stream<DynamicTest> bentleyMcIlroyBench() {
+        return SortImplementations.all().entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> bench(entry.getKey(), entry.getValue())));
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> adversarialInputs() {
+        return SortImplementations.all().entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> adversarial(entry.getKey(), entry.getValue())));
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> fuzz() {
+        return SortImplementations.all().entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> fuzz(entry.getKey(), entry.getValue())));
+    }
+
+    private static void bench(String name, Consumer<int[]> sort) {
+        Random random = new Random(1);
+        for (int n : BENCH_SIZES) {
+            if (SortImplementations.isQuadratic(name) && n > QUADRATIC_MAX_SIZE)
+                continue;
+            for (int m = 1; m < 2 * n; m *= 4)
+                for (SortImplementations.Pattern pattern : SortImplementations.Pattern.values()) {
+                    int[] source = pattern.generate(n, m, random);
+                    for (SortImplementations.Modification modification : SortImplementations.Modification.values())
+                        check(sort, modification.apply(source), name + " " + pattern + " " + modification + " n=" + n + " m=" + m);
+                }
+        }
+    }
+
+    private static void adversarial(String name, Consumer<int[]> sort) {
+        Random random = new Random(2);
+        int[] sizes = SortImplementations.isQuadratic(name) ? new int[] { 1000, 1001 } : new int[] { 1000, 1001, 100_000, 300_001 };
+        for (int n : sizes) {
+            check(sort, SortImplementations.medianOfThreeKiller(n), name + " median-of-3 killer n=" + n);
+            check(sort, SortImplementations.extremes(n, random), name + " extremes n=" + n);
+
+            int[] organPipe = new int[n];
+            for (int i = 0; i < n; i++)
+                organPipe[i] = Math.min(i, n - i);
+            check(sort, organPipe, name + " organ pipe n=" + n);
+
+            int[] equal = new int[n];
+            Arrays.fill(equal, -7);
+            check(sort, equal, name + " all equal n=" + n);
+
+            // alternating ends of the range, a min - max difference overflows int
+            int[] alternating = new int[n];
+            for (int i = 0; i < n; i++)
+                alternating[i] = i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            check(sort, alternating, name + " alternating MIN/MAX n=" + n);
+
+            // sorted with a few random swaps
+            int[] almostSorted = new int[n];
+            for (int i = 0; i < n; i++)
+                almostSorted[i] = i;
+            for (int s = 0; s < 8; s++) {
+                int i = random.nextInt(n), j = random.nextInt(n);
+                int temp = almostSorted[i];
+                almostSorted[i] = almostSorted[j];
+                almostSorted[j] = temp;
+            }
+            check(sort, almostSorted, name + " almost sorted n=" + n);
+
+            // narrow ranges pressed against both ends of the int range
+            int[] nearMax = new int[n], nearMin = new int[n];
+            for (int i = 0; i < n; i++) {
+                nearMax[i] = Integer.MAX_VALUE - random.nextInt(100);
+                nearMin[i] = Integer.MIN_VALUE + random.nextInt(100);
+            }
+            check(sort, nearMax, name + " near MAX_VALUE n=" + n);
+            check(sort, nearMin, name + " near MIN_VALUE n=" + n);
+        }
+    }
+
+    private static void fuzz(String name, Consumer<int[]> sort) {
+        long seed = Long.getLong("sort.fuzz.seed", 20_240_601L) ^ name.hashCode();
+        Random random = new Random(seed);
+        int maxSize = SortImplementations.isQuadratic(name) ? 300 : 5000;
+        for (int round = 0; round < FUZZ_ROUNDS; round++) {
+            int n = random.nextInt(maxSize + 1);
+            check(sort, SortImplementations.fuzz(n, random), name + " seed=" + seed + " round=" + round + " n=" + n);
+        }
+    }
+
+    private static void check(Consumer<int[]> sort, int[] input, String description) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        int[] actual = input.clone();
+        sort.accept(actual);
+        Assertions.assertArrayEquals(expected, actual, description);
+    }
+
+    @Test
+    public void externalSortOfChannels() throws IOException {
+        Random random = new Random(3);
+        int[] input = random.ints(300_000).toArray();
+        ByteBuffer bytes = ByteBuffer.allocate(input.length * 4);
+        bytes.asIntBuffer().put(input);
+
+        // the smallest accepted budget (4 merge buffers of 64 KB) forces many runs and several merge passes
+        ExternalSortAlgorithm external = new ExternalSortAlgorithm(new IntroSort());
+        external.setMemoryBudget(256 << 10);
+        external.setParallelism(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        external.sort(Channels.newChannel(new ByteArrayInputStream(bytes.array())), Channels.newChannel(out));
+
+        int[] actual = new int[input.length];
+        ByteBuffer.wrap(out.toByteArray()).asIntBuffer().get(actual);
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        Assertions.assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void longRadixSort() {
+        Random random = new Random(4);
+        LongRadixSort sort = new LongRadixSort();
+        long[] specials = { Long.MIN_VALUE, Long.MIN_VALUE + 1, -1, 0, 1, Long.MAX_VALUE - 1, Long.MAX_VALUE };
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(3000);
+            long[] input = new long[n];
+            for (int i = 0; i < n; i++)
+                input[i] = round % 3 == 0 ? specials[random.nextInt(specials.length)]
+                        : round % 3 == 1 ? random.nextLong() : random.nextInt(50) - 25L;
+
+            long[] expected = input.clone();
+            Arrays.sort(expected);
+            long[] actual = input.clone();
+            sort.sort(actual);
+            Assertions.assertArrayEquals(expected, actual, "round=" + round);
+
+            int[] order = sort.argsort(input);
+            for (int i = 0; i < n; i++) {
+                Assertions.assertEquals(expected[i], input[order[i]], "round=" + round);
+                if (i > 0 && input[order[i]] == input[order[i - 1]])
+                    Assertions.assertTrue(order[i] > order[i - 1], "argsort must be stable, round=" + round);
+            }
+        }
+    }
+
+    @Test
+    public void doubleRadixSort() {
+        Random random = new Random(5);
+        DoubleRadixSort sort = new DoubleRadixSort();
+        double[] specials = { Double.NaN, Double.longBitsToDouble(0x7ff8_0000_0000_0001L), Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, -0.0, 0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE,
+                -Double.MAX_VALUE, 1.0, -1.0 };
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(3000);
+            double[] input = new double[n];
+            for (int i = 0; i < n; i++)
+                input[i] = round % 2 == 0 ? specials[random.nextInt(specials.length)] : random.nextGaussian() * 1e6;
+
+            double[] expected = input.clone();
+            Arrays.sort(expected);
+            double[] actual = input.clone();
+            sort.sort(actual);
+            // Arrays.equals treats every NaN as equal and tells -0.0 from 0.0
+            Assertions.assertTrue(Arrays.equals(expected, actual), "round=" + round);
+
+            int[] order = sort.argsort(input);
+            for (int i = 0; i < n; i++)
+                Assertions.assertEquals(Double.doubleToLongBits(expected[i]),
+                        Double.doubleToLongBits(input[order[i]]), "round=" + round);
+        }
+    }
+
+    @Test
+    public void intArgsortIsStable() {
+        Random random = new Random(6);
+        Map<String, com.refstash.dependency_injection.annotation_configuration.autowiring.SortAlgorithm> sorts = Map.of(
+                "IntroSort", new IntroSort(), "RadixSort", new RadixSort());
+        for (Map.Entry<String, com.refstash.dependency_injection.annotation_configuration.autowiring.SortAlgorithm> entry
+                : sorts.entrySet()) {
+            for (int round = 0; round < 100; round++) {
+                int[] input = SortImplementations.fuzz(random.nextInt(2000), random);
+                int[] order = entry.getValue().argsort(input);
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                for (int i = 0; i < input.length; i++) {
+                    Assertions.assertEquals(expected[i], input[order[i]], entry.getKey() + " round=" + round);
+                    if (i > 0 && input[order[i]] == input[order[i - 1]])
+                        Assertions.assertTrue(order[i] > order[i - 1], entry.getKey() + " round=" + round);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/*
+ * Every int SortAlgorithm in the tree, across the packages that each declare their own interface,
+ * plus the input shapes the sort tests feed them
+ */
+final class SortImplementations {
+
+    private SortImplementations() {
+    }
+
+    // name -> in-place sort, in a stable order
+    static Map<String, Consumer<int[]>> all() {
+        Map<String, Consumer<int[]>> sorts = new LinkedHashMap<>();
+
+        sorts.put("without_dependency_injection.BubbleSort",
+                new com.refstash.need_of_dependency_injection.without_dependency_injection.BubbleSort()::sort);
+        sorts.put("without_dependency_injection.HeapSort",
+                new com.refstash.need_of_dependency_injection.without_dependency_injection.HeapSort()::sort);
+        sorts.put("dependency_injection.BubbleSort",
+                new com.refstash.need_of_dependency_injection.dependency_injection.BubbleSort()::sort);
+        sorts.put("dependency_injection.HeapSort",
+                new com.refstash.need_of_dependency_injection.dependency_injection.HeapSort()::sort);
+        sorts.put("dependency_injection_with_spring.BubbleSort",
+                new com.refstash.need_of_dependency_injection.dependency_injection_with_spring.BubbleSort()::sort);
+        sorts.put("dependency_injection_with_spring.HeapSort",
+                new com.refstash.need_of_dependency_injection.dependency_injection_with_spring.HeapSort()::sort);
+        sorts.put("xml_configuration.BubbleSort",
+                new com.refstash.dependency_injection.xml_configuration.autowiring.BubbleSort()::sort);
+        sorts.put("xml_configuration.HeapSort",
+                new com.refstash.dependency_injection.xml_configuration.autowiring.HeapSort()::sort);
+        sorts.put("annotation_configuration.BubbleSort",
+                new com.refstash.dependency_injection.annotation_configuration.autowiring.BubbleSort()::sort);
+        sorts.put("annotation_configuration.HeapSort",
+                new com.refstash.dependency_injection.annotation_configuration.autowiring.HeapSort()::sort);
+
+        sorts.put("IntroSort", new IntroSort()::sort);
+        sorts.put("RadixSort", new RadixSort()::sort);
+        sorts.put("CountingSort", new CountingSort(new IntroSort())::sort);
+        sorts.put("ParallelMergeSort", new ParallelMergeSort()::sort);
+        sorts.put("VectorBitonicSort", new VectorBitonicSort()::sort);
+        sorts.put("AdaptiveSortAlgorithm", new AdaptiveSortAlgorithm(new IntroSort(),
+                new CountingSort(new IntroSort()), new ParallelMergeSort())::sort);
+        sorts.put("ExternalSortAlgorithm", new ExternalSortAlgorithm(new IntroSort())::sort);
+
+        // thresholds lowered so that small inputs take the parallel paths too
+        ParallelMergeSort parallel = new ParallelMergeSort();
+        parallel.setThreshold(64);
+        sorts.put("ParallelMergeSort(threshold=64)", parallel::sort);
+        CountingSort counting = new CountingSort(new IntroSort());
+        counting.setParallelThreshold(64);
+        sorts.put("CountingSort(parallelThreshold=64)", counting::sort);
+        AdaptiveSortAlgorithm adaptive = new AdaptiveSortAlgorithm(new IntroSort(),
+                new CountingSort(new IntroSort()), parallel);
+        adaptive.setParallelThreshold(256);
+        sorts.put("AdaptiveSortAlgorithm(parallelThreshold=256)", adaptive::sort);
+        // most shuffled inputs still have fewer than 1000 runs, so the run merge sees them too
+        AdaptiveSortAlgorithm runs = new AdaptiveSortAlgorithm(new IntroSort(), new CountingSort(new IntroSort()),
+                new ParallelMergeSort());
+        runs.setMaxRuns(1000);
+        runs.setMaxSmallRange(0);
+        sorts.put("AdaptiveSortAlgorithm(maxRuns=1000)", runs::sort);
+
+        return sorts;
+    }
+
+    // O(n^2) sorts, only given small inputs
+    static boolean isQuadratic(String name) {
+        return name.endsWith("BubbleSort");
+    }
+
+    // the data shapes of Bentley and McIlroy's "Engineering a Sort Function" test bench
+    enum Pattern {
+        SAWTOOTH, RAND, STAGGER, PLATEAU, SHUFFLE;
+
+        int[] generate(int n, int m, Random random) {
+            int[] arr = new int[n];
+            for (int i = 0, j = 0, k = 1; i < n; i++) {
+                switch (this) {
+                    case SAWTOOTH:
+                        arr[i] = i % m;
+                        break;
+                    case RAND:
+                        arr[i] = random.nextInt(m);
+                        break;
+                    case STAGGER:
+                        arr[i] = (int) (((long) i * m + i) % n);
+                        break;
+                    case PLATEAU:
+                        arr[i] = Math.min(i, m);
+                        break;
+                    default:
+                        arr[i] = random.nextInt(m) == 0 ? (j += 2) : (k += 2);
+                }
+            }
+            return arr;
+        }
+    }
+
+    // variations applied to every pattern
+    enum Modification {
+        IDENTITY, REVERSED, REVERSE_FRONT, REVERSE_BACK, SORTED, DITHER;
+
+        int[] apply(int[] source) {
+            int[] arr = source.clone();
+            int n = arr.length;
+            switch (this) {
+                case REVERSED:
+                    reverse(arr, 0, n);
+                    break;
+                case REVERSE_FRONT:
+                    reverse(arr, 0, n / 2);
+                    break;
+                case REVERSE_BACK:
+                    reverse(arr, n / 2, n);
+                    break;
+                case SORTED:
+                    Arrays.sort(arr);
+                    break;
+                case DITHER:
+                    for (int i = 0; i < n; i++)
+                        arr[i] += i % 5;
+                    break;
+                default:
+            }
+            return arr;
+        }
+    }
+
+    // Musser's median-of-3 killer, drives median-of-3 quicksort to quadratic time
+    static int[] medianOfThreeKiller(int n) {
+        int k = n / 2;
+        int[] arr = new int[n];
+        for (int i = 1; i <= k; i++) {
+            if (i % 2 == 1) {
+                arr[i - 1] = i;
+                arr[i] = k + i;
+            }
+            arr[k + i - 1] = 2 * i;
+        }
+        if (n % 2 == 1)
+            arr[n - 1] = n;
+        return arr;
+    }
+
+    // values at and around the ends of the int range, where differences and sign flips overflow
+    static int[] extremes(int n, Random random) {
+        int[] values = { Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE - 1,
+                Integer.MAX_VALUE };
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++)
+            arr[i] = values[random.nextInt(values.length)];
+        return arr;
+    }
+
+    // a random input of one of several shapes, for the fuzz tests
+    static int[] fuzz(int n, Random random) {
+        int[] arr = new int[n];
+        int shape = random.nextInt(6);
+        int base = random.nextInt();
+        int width = 1 + random.nextInt(1 << random.nextInt(31));
+        for (int i = 0; i < n; i++) {
+            switch (shape) {
+                case 0:
+                    arr[i] = random.nextInt();
+                    break;
+                case 1:
+                    // narrow range at a random offset, wrapping around the int range
+                    arr[i] = base + random.nextInt(width);
+                    break;
+                case 2:
+                    arr[i] = random.nextBoolean() ? Integer.MAX_VALUE - random.nextInt(width)
+                            : Integer.MIN_VALUE + random.nextInt(width);
+                    break;
+                case 3:
+                    // ascending runs of random length
+                    arr[i] = random.nextInt(16) == 0 ? random.nextInt(width) : i == 0 ? 0 : arr[i - 1] + random.nextInt(3);
+                    break;
+                case 4:
+                    arr[i] = random.nextInt(4) - 2;
+                    break;
+                default:
+                    arr[i] = n - i + random.nextInt(3);
+            }
+        }
+        return arr;
+    }
+
+    private static void reverse(int[] arr, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+ * Performance regression gate: ns/element of every sort on a fixed random input,
+ * checked against sort-baseline.properties with a generous tolerance for slower machines.
+ * Tagged "perf", so it only runs in the perfTest task, never in test.
+ *
+ *   -Dsort.perf.skip=true          skips the gate
+ *   -Dsort.perf.tolerance=3.0      allowed slowdown factor over the baseline
+ *   -Dsort.perf.record=<file>      also writes the measured values, to refresh the baseline
+ */
+@Tag("perf")
+public class SortPerformanceTest {
+
+    private static final String BASELINE = "/sort-baseline.properties";
+
+    private static final int REFERENCE_SIZE = 1 << 20;
+    private static final int QUADRATIC_REFERENCE_SIZE = 1 << 12;
+
+    // each phase runs at least this many times and for at least this long, so the JIT settles first
+    private static final int MIN_RUNS = 5;
+    private static final long WARMUP_NANOS = 500_000_000L;
+    private static final long MEASURE_NANOS = 500_000_000L;
+
+    private static final Properties measured = new Properties();
+
+    @TestFactory
+    public Stream<DynamicTest> nanosPerElement() throws IOException {
+        Assumptions.assumeFalse(Boolean.getBoolean("sort.perf.skip"), "sort.perf.skip is set");
+        double tolerance = Double.parseDouble(System.getProperty("sort.perf.tolerance", "3.0"));
+
+        Properties baseline = new Properties();
+        try (InputStream in = SortPerformanceTest.class.getResourceAsStream(BASELINE)) {
+            Assertions.assertNotNull(in, BASELINE + " not found on the test classpath");
+            baseline.load(in);
+        }
+
+        Stream<DynamicTest> tests = SortImplementations.all().entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(),
+                        () -> check(entry.getKey(), entry.getValue(), baseline, tolerance)));
+        return Stream.concat(tests, Stream.of(DynamicTest.dynamicTest("record", SortPerformanceTest::record)));
+    }
+
+    private static void check(String name, Consumer<int[]> sort, Properties baseline, double tolerance) {
+        int n = SortImplementations.isQuadratic(name) ? QUADRATIC_REFERENCE_SIZE : REFERENCE_SIZE;
+        double nanosPerElement = measure(sort, n);
+        String key = key(name);
+        measured.setProperty(key, String.format("%.2f", nanosPerElement));
+
+        String expected = baseline.getProperty(key);
+        Assumptions.assumeTrue(expected != null, "no baseline for " + key);
+        double limit = Double.parseDouble(expected) * tolerance;
+        Assertions.assertTrue(nanosPerElement <= limit, String.format(
+                "%s regressed: %.2f ns/element, baseline %s, limit %.2f", name, nanosPerElement, expected, limit));
+    }
+
+    // best of several runs on the same input, after warming up on it
+    private static double measure(Consumer<int[]> sort, int n) {
+        int[] reference = new Random(42).ints(n).toArray();
+        run(sort, reference, WARMUP_NANOS);
+        return (double) run(sort, reference, MEASURE_NANOS) / n;
+    }
+
+    // fastest of the runs made within the time budget
+    private static long run(Consumer<int[]> sort, int[] reference, long budgetNanos) {
+        long best = Long.MAX_VALUE;
+        long deadline = System.nanoTime() + budgetNanos;
+        for (int run = 0; run < MIN_RUNS || System.nanoTime() < deadline; run++) {
+            int[] arr = reference.clone();
+            long start = System.nanoTime();
+            sort.accept(arr);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void record() throws IOException {
+        String file = System.getProperty("sort.perf.record");
+        if (file == null)
+            return;
+        Path path = Paths.get(file);
+        try (OutputStream out = Files.newOutputStream(path)) {
+            measured.store(out, "ns/element, reference input of " + REFERENCE_SIZE + " random ints ("
+                    + QUADRATIC_REFERENCE_SIZE + " for quadratic sorts)");
+        }
+    }
+
+    // property keys cannot hold '=' unescaped, keep them readable
+    private static String key(String name) {
+        return name.replace('=', '-').replace("(", ".").replace(")", "");
+    }
+
+}
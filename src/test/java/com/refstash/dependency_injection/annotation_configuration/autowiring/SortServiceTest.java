@@ -0,0 +1,208 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/*
+ * SortService: coalescing of identical submissions, cancellation of queued and running jobs,
+ * failures and shutdown. Sorts are held at a latch, so every job's state is known when checked.
+ */
+public class SortServiceTest {
+
+    // sorts with Arrays.sort once the gate opens, counting the sorts that started
+    private static final class GatedSort implements SortAlgorithm {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void sort(int[] arr) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            Arrays.sort(arr);
+        }
+    }
+
+    @Test
+    public void identicalSubmissionsShareOneSort() throws Exception {
+        GatedSort sort = new GatedSort();
+        SortService service = new SortService(sort, 2);
+        int[] input = new Random(32).ints(10_000).toArray();
+        int[] other = input.clone();
+        other[0]++;
+
+        List<CompletableFuture<int[]>> waiters = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            waiters.add(service.submit(input));
+        CompletableFuture<int[]> different = service.submit(other);
+        Assertions.assertEquals(2, service.getInFlight());
+        Assertions.assertEquals(21, service.getSubmitted());
+        Assertions.assertEquals(19, service.getCoalesced());
+
+        // the caller may reuse its array as soon as submit returns
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        Arrays.fill(input, 0);
+
+        // cancelling some of the waiters leaves the shared job running for the others
+        for (int i = 0; i < 5; i++)
+            Assertions.assertTrue(waiters.get(i).cancel(true));
+        sort.gate.countDown();
+
+        for (int i = 5; i < 20; i++)
+            Assertions.assertArrayEquals(expected, waiters.get(i).get(10, TimeUnit.SECONDS));
+        // every caller gets its own copy
+        Assertions.assertNotSame(waiters.get(5).get(), waiters.get(6).get());
+        Arrays.sort(other);
+        Assertions.assertArrayEquals(other, different.get(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(2, sort.calls.get());
+        awaitCount(2, service::getSortedJobs);
+        Assertions.assertEquals(0, service.getCancelledJobs());
+        Assertions.assertEquals(0, service.getInFlight());
+        service.shutdown();
+    }
+
+    @Test
+    public void cancellingTheLastWaiterOfAQueuedJobSkipsItsSort() throws Exception {
+        GatedSort sort = new GatedSort();
+        SortService service = new SortService(sort, 1);
+        CompletableFuture<int[]> running = service.submit(new int[] { 2, 1 });
+        Assertions.assertTrue(sort.started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<int[]> queued = service.submit(new int[] { 4, 3 });
+
+        Assertions.assertTrue(queued.cancel(true));
+        Assertions.assertEquals(1, service.getInFlight());
+        Assertions.assertEquals(1, service.getCancelledJobs());
+
+        sort.gate.countDown();
+        Assertions.assertArrayEquals(new int[] { 1, 2 }, running.get(10, TimeUnit.SECONDS));
+        // a later job on the single worker thread proves the cancelled one was skipped, not just late
+        Assertions.assertArrayEquals(new int[] { 5, 6 }, service.submit(new int[] { 6, 5 }).get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, sort.calls.get());
+        service.shutdown();
+    }
+
+    @Test
+    public void cancellingARunningJobDiscardsItsResult() throws Exception {
+        GatedSort sort = new GatedSort();
+        SortService service = new SortService(sort, 1);
+        CompletableFuture<int[]> running = service.submit(new int[] { 2, 1 });
+        Assertions.assertTrue(sort.started.await(10, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(running.cancel(true));
+        Assertions.assertEquals(0, service.getInFlight());
+        Assertions.assertEquals(1, service.getCancelledJobs());
+        // the same content is sorted again by a new job
+        sort.gate.countDown();
+        Assertions.assertArrayEquals(new int[] { 1, 2 }, service.submit(new int[] { 2, 1 }).get(10, TimeUnit.SECONDS));
+        awaitCount(1, service::getSortedJobs);
+        Assertions.assertThrows(CancellationException.class, running::join);
+        service.shutdown();
+    }
+
+    @Test
+    public void failedSortsReachEveryWaiter() throws Exception {
+        SortAlgorithm failing = arr -> {
+            throw new IllegalStateException("broken sort");
+        };
+        SortService service = new SortService(failing, 1);
+        CompletableFuture<int[]> first = service.submit(new int[] { 1 });
+        CompletableFuture<int[]> second = service.submit(new int[] { 1 });
+
+        for (CompletableFuture<int[]> waiter : List.of(first, second)) {
+            ExecutionException failure = Assertions.assertThrows(ExecutionException.class,
+                    () -> waiter.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(failure.getCause() instanceof IllegalStateException);
+        }
+        Assertions.assertEquals(0, service.getInFlight());
+        Assertions.assertEquals(0, service.getSortedJobs());
+        service.shutdown();
+    }
+
+    @Test
+    public void shutdownCancelsJobsAndRejectsNewOnes() throws Exception {
+        GatedSort sort = new GatedSort();
+        SortService service = new SortService(sort, 1);
+        CompletableFuture<int[]> running = service.submit(new int[] { 2, 1 });
+        CompletableFuture<int[]> queued = service.submit(new int[] { 4, 3 });
+        Assertions.assertTrue(sort.started.await(10, TimeUnit.SECONDS));
+
+        service.shutdown();
+        Assertions.assertThrows(CancellationException.class, () -> running.get(10, TimeUnit.SECONDS));
+        Assertions.assertThrows(CancellationException.class, () -> queued.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, service.getInFlight());
+        Assertions.assertEquals(2, service.getCancelledJobs());
+
+        ExecutionException rejected = Assertions.assertThrows(ExecutionException.class,
+                () -> service.submit(new int[] { 1 }).get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(rejected.getCause() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    public void concurrentCallersWithCancellations() throws Exception {
+        SortService service = new SortService(new IntroSort(), 4);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        int[][] inputs = new int[8][];
+        for (int i = 0; i < inputs.length; i++)
+            inputs[i] = new Random(i).ints(20_000).toArray();
+
+        List<Future<?>> calls = new ArrayList<>();
+        for (int t = 0; t < 1000; t++) {
+            int[] input = inputs[t % inputs.length];
+            boolean cancel = t % 7 == 0;
+            calls.add(callers.submit(() -> {
+                CompletableFuture<int[]> sorted = service.submit(input);
+                if (cancel) {
+                    sorted.cancel(true);
+                    return null;
+                }
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                Assertions.assertArrayEquals(expected, sorted.get(30, TimeUnit.SECONDS));
+                return null;
+            }));
+        }
+        for (Future<?> call : calls)
+            call.get();
+        callers.shutdown();
+        Assertions.assertEquals(1000, service.getSubmitted());
+        Assertions.assertEquals(0, service.getInFlight());
+        service.shutdown();
+    }
+
+    @Test
+    public void rejectsInvalidConcurrency() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SortService(new IntroSort(), 0));
+    }
+
+    // job counters are updated right after the result is handed out, so a waiter may see them late
+    private static void awaitCount(long expected, LongSupplier counter) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (counter.getAsLong() != expected && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        Assertions.assertEquals(expected, counter.getAsLong());
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.refstash.dependency_injection.annotation_configuration.autowiring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * The bitonic network on its own, vector and scalar, for every power of two block size,
+ * and VectorBitonicSort around its block and cached buffer sizes
+ */
+public class VectorBitonicSortTest {
+
+    @Test
+    public void scalarNetworkSortsEveryBlockSize() {
+        Random random = new Random(19);
+        for (int length = 2; length <= VectorBitonicSort.BLOCK; length <<= 1)
+            for (int round = 0; round < 50; round++)
+                checkNetwork(length, random, false);
+    }
+
+    @Test
+    public void vectorNetworkSortsEveryBlockSize() {
+        Assumptions.assumeTrue(VectorBitonicSort.isVectorized(), "jdk.incubator.vector is not available");
+        Random random = new Random(20);
+        for (int length = IntVectorBitonicKernel.LANES; length <= VectorBitonicSort.BLOCK; length <<= 1)
+            for (int round = 0; round < 50; round++)
+                checkNetwork(length, random, true);
+    }
+
+    @Test
+    public void sortsAroundBlockBoundaries() {
+        Random random = new Random(21);
+        int block = VectorBitonicSort.BLOCK;
+        for (int n : new int[] { block - 1, block, block + 1, 2 * block - 1, 2 * block + 1, 3 * block, 7 * block + 5 })
+            for (int round = 0; round < 20; round++) {
+                int[] input = round % 2 == 0 ? random.ints(n).toArray() : random.ints(n, -3, 3).toArray();
+                // MAX_VALUE is also the padding of partial blocks
+                if (round % 4 == 1)
+                    input[random.nextInt(n)] = Integer.MAX_VALUE;
+                check(input, "n=" + n + " round=" + round);
+            }
+    }
+
+    @Test
+    public void sortsPastTheCachedBufferSize() {
+        int[] input = new Random(22).ints(RadixSort.MAX_CACHED_BUFFER + 3).toArray();
+        check(input, "n=" + input.length);
+    }
+
+    private static void checkNetwork(int length, Random random, boolean vector) {
+        int[] network = random.ints(length, -1000, 1000).toArray();
+        if (length > 2)
+            network[random.nextInt(length)] = Integer.MIN_VALUE;
+        int[] expected = network.clone();
+        Arrays.sort(expected);
+        if (vector)
+            IntVectorBitonicKernel.sort(network, length);
+        else
+            VectorBitonicSort.scalarSort(network, length);
+        Assertions.assertArrayEquals(expected, network, "length=" + length + " vector=" + vector);
+    }
+
+    private static void check(int[] input, String description) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        new VectorBitonicSort().sort(input);
+        Assertions.assertArrayEquals(expected, input, description);
+    }
+
+}